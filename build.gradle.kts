@@ -37,6 +37,7 @@ dependencies {
     testImplementation(libs.junitJupiter)
     testImplementation(libs.mockk)
     testImplementation(libs.wiremock)
+    testImplementation(testFixtures(project(":src:testrailclient")))
 }
 
 // Add gradle properties to the spring properties
@@ -5,4 +5,14 @@ import systems.ajax.codetests.application.model.diff.Action
 
 interface ApplyDiffCaseInPort {
     fun execute(filePath: FilePath, action: Action)
+
+    /**
+     * Reads the case files before any of them is applied, so that every unreadable file is reported at once.
+     */
+    fun prepare(filePaths: List<FilePath>)
+
+    /**
+     * Forgets the case files read by [prepare], once every case of the run is applied.
+     */
+    fun release()
 }
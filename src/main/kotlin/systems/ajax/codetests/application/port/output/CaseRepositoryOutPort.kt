@@ -7,4 +7,6 @@ import systems.ajax.codetests.application.model.appcase.AppCase
 interface CaseRepositoryOutPort {
     fun get(filePath: FilePath): AppCase
     fun writeIdToFile(fileId: FileId)
+    fun parse(filePaths: List<FilePath>)
+    fun clearParsed()
 }
@@ -0,0 +1,15 @@
+package systems.ajax.codetests.application.port.output
+
+import systems.ajax.codetests.application.model.FilePath
+import java.io.InputStream
+
+interface GitObjectReaderOutPort {
+
+    /**
+     * Reads the content a file has in the HEAD commit, for e.g. a file which has been removed since.
+     *
+     * @param read reads what it needs from the content, which is only valid until it returns
+     * @return the result of [read], or null when the file is not in the HEAD commit
+     */
+    fun <T> readCommittedFile(filePath: FilePath, read: (InputStream) -> T): T?
+}
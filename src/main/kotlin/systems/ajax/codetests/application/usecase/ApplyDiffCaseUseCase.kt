@@ -37,6 +37,14 @@ internal class ApplyDiffCaseUseCase(
         }
     }
 
+    override fun prepare(filePaths: List<FilePath>) {
+        caseRepository.parse(filePaths)
+    }
+
+    override fun release() {
+        caseRepository.clearParsed()
+    }
+
     private fun getCaseFields(): List<CaseField> {
         return testrail.caseFields().list().execute()
     }
@@ -0,0 +1,140 @@
+package systems.ajax.codetests.infrastructure.gitdifference
+
+import org.springframework.beans.factory.annotation.Value
+import org.springframework.stereotype.Component
+import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.application.port.output.GitObjectReaderOutPort
+import java.io.BufferedInputStream
+import java.io.ByteArrayOutputStream
+import java.io.File
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.locks.ReentrantLock
+import kotlin.concurrent.withLock
+
+/**
+ * Reads committed files through a single `git cat-file --batch` process, which is started on the first read and kept
+ * for the whole run instead of starting a `git show` per file. Reads are served one at a time over its pipe.
+ */
+@Component
+internal class GitCatFileBatchReader(
+    @Value("\${user.dir}") private val workingDirectory: File,
+) : GitObjectReaderOutPort, AutoCloseable {
+
+    private val lock = ReentrantLock()
+    private var process: Process? = null
+    private lateinit var objects: InputStream
+    private lateinit var requests: OutputStream
+
+    override fun <T> readCommittedFile(filePath: FilePath, read: (InputStream) -> T): T? = lock.withLock {
+        try {
+            startIfNeeded()
+            requests.write("$REVISION:${filePath.path}\n".toByteArray())
+            requests.flush()
+            readObject(read)
+        } catch (e: IOException) {
+            stop()
+            throw e
+        }
+    }
+
+    override fun close() = lock.withLock { stop() }
+
+    /**
+     * Reads the answer to a request: a `<oid> <type> <size>` header followed by the content and a line feed, or a
+     * `<name> missing` header alone when there is no such object.
+     */
+    private fun <T> readObject(read: (InputStream) -> T): T? {
+        val header = readHeader().split(' ')
+        if (header.size != HEADER_PARTS || header[2].toLongOrNull() == null) {
+            return null
+        }
+        val content = ObjectContent(objects, header[2].toLong())
+        return try {
+            if (header[1] == BLOB) read(content) else null
+        } finally {
+            content.skipRemaining()
+            if (objects.read() != '\n'.code) {
+                throw IOException("Unexpected end of git cat-file output")
+            }
+        }
+    }
+
+    private fun readHeader(): String {
+        val header = ByteArrayOutputStream()
+        while (true) {
+            when (val byte = objects.read()) {
+                -1 -> throw IOException("git cat-file exited unexpectedly")
+                '\n'.code -> return header.toString(Charsets.UTF_8)
+                else -> header.write(byte)
+            }
+        }
+    }
+
+    private fun startIfNeeded() {
+        if (process?.isAlive == true) {
+            return
+        }
+        val started = ProcessBuilder("git", "cat-file", "--batch")
+            .directory(workingDirectory)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start()
+        process = started
+        objects = BufferedInputStream(started.inputStream)
+        requests = started.outputStream
+    }
+
+    private fun stop() {
+        val running = process ?: return
+        process = null
+        // git exits once its input is closed
+        runCatching { requests.close() }
+        if (!running.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            running.destroyForcibly()
+        }
+    }
+
+    /**
+     * The content of one object in the output of git, which ends after its size rather than at the end of the output.
+     */
+    private class ObjectContent(private val output: InputStream, private var remaining: Long) : InputStream() {
+
+        override fun read(): Int {
+            if (remaining == 0L) {
+                return -1
+            }
+            return output.read().also { if (it != -1) remaining-- }
+        }
+
+        override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+            if (remaining == 0L) {
+                return -1
+            }
+            val read = output.read(buffer, offset, minOf(length.toLong(), remaining).toInt())
+            if (read > 0) {
+                remaining -= read
+            }
+            return read
+        }
+
+        override fun available(): Int = minOf(output.available().toLong(), remaining).toInt()
+
+        override fun close() {
+            // the output is shared by all objects
+        }
+
+        fun skipRemaining() {
+            output.skipNBytes(remaining)
+            remaining = 0
+        }
+    }
+
+    private companion object {
+        private const val REVISION = "HEAD"
+        private const val BLOB = "blob"
+        private const val HEADER_PARTS = 3
+        private const val STOP_TIMEOUT_SECONDS = 5L
+    }
+}
@@ -6,51 +6,73 @@ import systems.ajax.codetests.application.model.diff.Action
 import systems.ajax.codetests.application.model.diff.Type
 import systems.ajax.codetests.application.model.diff.TypeAction
 import systems.ajax.codetests.application.port.input.FileDifferenceInPort
-import java.io.BufferedReader
-import java.io.InputStreamReader
+import java.io.BufferedInputStream
+import java.io.ByteArrayOutputStream
+import java.io.InputStream
 import java.lang.ProcessBuilder
 
 @Component
 internal class GitDifference : FileDifferenceInPort {
 
     override fun getDifference(): Map<TypeAction, List<FilePath>> {
-        return executeGitDiffCommand()
-            .split(System.lineSeparator())
-            .filter { it.contains(CASE_EXTENSION) || it.contains(SECTION_EXTENSION) }
-            .filter { it.contains(RESOURCES_FOLDER) }
-            .map { line ->
-                if (line.contains(CASE_EXTENSION)) {
-                    extractAction(Type.CASE, line.split(trailingSpaceRegex))
+        val process = ProcessBuilder(GIT_DIFF_COMMAND)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start()
+        val difference = process.inputStream.use { output ->
+            parse(output).groupBy({ it.first }, { it.second })
+        }
+        check(process.waitFor() == 0) { "git diff exited with code ${process.exitValue()}" }
+        return difference
+    }
+
+    /**
+     * Parses the output of `git diff --name-status -z` as git writes it: a status, then one path, or two for a rename
+     * or copy, each ended by a NUL. Paths are written as they are, so they may contain spaces.
+     */
+    internal fun parse(output: InputStream): Sequence<Pair<TypeAction, FilePath>> {
+        val fields = BufferedInputStream(output)
+        return generateSequence { readField(fields) }
+            .map { status ->
+                val path = requireNotNull(readField(fields)) { "git diff output ends after status $status" }
+                if (status.startsWith(GIT_MOVED_OR_UPDATED_SYMBOL) || status.startsWith(GIT_COPIED_SYMBOL)) {
+                    status to requireNotNull(readField(fields)) { "git diff output ends after $path" }
                 } else {
-                    extractAction(Type.SECTION, line.split(trailingSpaceRegex))
+                    status to path
                 }
-            }.groupBy(
-                { it.first },
-                { it.second }
-            )
+            }
+            .filter { (_, path) -> path.contains(RESOURCES_FOLDER) }
+            .mapNotNull { (status, path) ->
+                when {
+                    path.endsWith(CASE_EXTENSION) -> extractAction(Type.CASE, status, path)
+                    path.endsWith(SECTION_EXTENSION) -> extractAction(Type.SECTION, status, path)
+                    else -> null
+                }
+            }
     }
 
-    private fun extractAction(type: Type, parts: List<String>): Pair<TypeAction, FilePath> {
-        return if (parts[0].contains(GIT_MOVED_OR_UPDATED_SYMBOL)) {
-            TypeAction(type, Action.MOVED_OR_UPDATED) to FilePath(parts[2])
-        } else if (parts[0] == GIT_REMOVED_SYMBOL) {
-            TypeAction(type, Action.REMOVED) to FilePath(parts[1])
-        } else if (parts[0] == GIT_MODIFIED_SYMBOL) {
-            TypeAction(type, Action.MODIFIED) to FilePath(parts[1])
-        } else if (parts[0] == GIT_ADDED_SYMBOL) {
-            TypeAction(type, Action.ADDED) to FilePath(parts[1])
-        } else {
-            TypeAction(type, Action.UNKNOWN) to FilePath(parts[1])
+    private fun extractAction(type: Type, status: String, path: String): Pair<TypeAction, FilePath> {
+        val action = when {
+            status.startsWith(GIT_MOVED_OR_UPDATED_SYMBOL) -> Action.MOVED_OR_UPDATED
+            status == GIT_REMOVED_SYMBOL -> Action.REMOVED
+            status == GIT_MODIFIED_SYMBOL -> Action.MODIFIED
+            status == GIT_ADDED_SYMBOL -> Action.ADDED
+            else -> Action.UNKNOWN
         }
+        return TypeAction(type, action) to FilePath(path)
     }
 
-    private fun executeGitDiffCommand(): String {
-        val process = ProcessBuilder("git", "diff", "--name-status", "--find-renames", "main").start()
-        return BufferedReader(InputStreamReader(process.inputStream)).readText()
+    private fun readField(input: InputStream): String? {
+        val field = ByteArrayOutputStream()
+        while (true) {
+            when (val byte = input.read()) {
+                -1 -> return if (field.size() == 0) null else field.toString(Charsets.UTF_8)
+                0 -> return field.toString(Charsets.UTF_8)
+                else -> field.write(byte)
+            }
+        }
     }
 
     private companion object {
-        private val trailingSpaceRegex = Regex("\\s+")
         private const val SECTION_EXTENSION = "_Meta.json"
         private const val RESOURCES_FOLDER = "resources"
         private const val CASE_EXTENSION = ".feature"
@@ -58,5 +80,13 @@ internal class GitDifference : FileDifferenceInPort {
         private const val GIT_MODIFIED_SYMBOL = "M"
         private const val GIT_ADDED_SYMBOL = "A"
         private const val GIT_MOVED_OR_UPDATED_SYMBOL = "R"
+        private const val GIT_COPIED_SYMBOL = "C"
+
+        // the pathspecs let git skip everything outside of the resources folders instead of diffing the whole repository
+        private val GIT_DIFF_COMMAND = listOf(
+            "git", "diff", "--name-status", "-z", "--find-renames", "main", "--",
+            ":(glob)**/$RESOURCES_FOLDER/**/*$CASE_EXTENSION",
+            ":(glob)**/$RESOURCES_FOLDER/**/$SECTION_EXTENSION",
+        )
     }
 }
@@ -0,0 +1,67 @@
+package systems.ajax.codetests.infrastructure.testrail
+
+import org.slf4j.LoggerFactory
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.Executors
+import java.util.concurrent.Semaphore
+
+/**
+ * Runs tasks on virtual threads as soon as the tasks they depend on are done, with at most [parallelism] of them
+ * running at once. A task whose dependency failed is skipped. Once every task has run or been skipped, the first
+ * failure is thrown with the others suppressed.
+ */
+internal class DependencyScheduler(private val parallelism: Int) {
+
+    init {
+        require(parallelism > 0) { "parallelism should be positive" }
+    }
+
+    /**
+     * @param dependencies every task with the tasks it waits for, which must not form a cycle
+     * @param task the work to run for a task
+     */
+    fun <T> execute(dependencies: Map<T, List<T>>, task: (T) -> Unit) {
+        val permits = Semaphore(parallelism)
+        val failures = ConcurrentLinkedQueue<Throwable>()
+
+        Executors.newVirtualThreadPerTaskExecutor().use { executor ->
+            val scheduled = HashMap<T, CompletableFuture<Void>>()
+
+            fun schedule(node: T): CompletableFuture<Void> = scheduled[node] ?: run {
+                val before = dependencies[node].orEmpty().map { schedule(it) }
+                CompletableFuture.allOf(*before.toTypedArray())
+                    .thenRunAsync({ runTask(node, task, permits, failures) }, executor)
+                    .also { scheduled[node] = it }
+            }
+
+            dependencies.keys.forEach { schedule(it) }
+            val skipped = scheduled.values.count { it.handle { _, error -> error != null }.join() } - failures.size
+            if (skipped > 0) {
+                log.warn("Skipped {} operations since operations they depend on failed", skipped)
+            }
+        }
+
+        failures.poll()?.let { first ->
+            failures.forEach { first.addSuppressed(it) }
+            throw first
+        }
+    }
+
+    private fun <T> runTask(node: T, task: (T) -> Unit, permits: Semaphore, failures: MutableCollection<Throwable>) {
+        permits.acquire()
+        try {
+            task(node)
+        } catch (@Suppress("TooGenericExceptionCaught") e: Exception) {
+            log.error("Failed to apply {}", node, e)
+            failures.add(e)
+            throw e
+        } finally {
+            permits.release()
+        }
+    }
+
+    companion object {
+        private val log = LoggerFactory.getLogger(DependencyScheduler::class.java)
+    }
+}
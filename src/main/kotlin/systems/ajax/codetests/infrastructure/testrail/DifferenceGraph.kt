@@ -0,0 +1,60 @@
+package systems.ajax.codetests.infrastructure.testrail
+
+import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.application.model.diff.Action
+import systems.ajax.codetests.application.model.diff.Type
+import systems.ajax.codetests.application.model.diff.TypeAction
+import java.nio.file.Path
+
+internal data class DiffOperation(val typeAction: TypeAction, val filePath: FilePath)
+
+/**
+ * Builds the operations of a difference together with the operations each of them has to wait for:
+ * - a section or case waits for its section to be added or moved, since it needs the id and place of that section;
+ * - a removed section waits for the removals beneath it and for every move, since TestRail deletes everything
+ *   beneath a section along with it, including what a move is about to take out of it.
+ *
+ * Dependencies only point from removals to other removals and moves, and from other operations to the sections
+ * containing them, so the graph has no cycles.
+ */
+internal object DifferenceGraph {
+
+    fun of(difference: Map<TypeAction, List<FilePath>>): Map<DiffOperation, List<DiffOperation>> {
+        val operations = difference.flatMap { (typeAction, files) -> files.map { DiffOperation(typeAction, it) } }
+
+        val sectionsToCreate = operations
+            .filter { it.typeAction.type == Type.SECTION && it.typeAction.action in CREATING_ACTIONS }
+            .associateBy { it.directory() }
+        val moves = operations.filter { it.typeAction.action == Action.MOVED_OR_UPDATED }
+        val removalsByParent = operations
+            .filter { it.typeAction.action == Action.REMOVED }
+            .groupBy { it.parentDirectory() }
+
+        return operations.associateWith { operation ->
+            when {
+                operation.typeAction.action != Action.REMOVED ->
+                    listOfNotNull(sectionsToCreate[operation.parentDirectory()])
+
+                operation.typeAction.type == Type.SECTION ->
+                    removalsByParent[operation.directory()].orEmpty() + moves
+
+                else -> emptyList()
+            }
+        }
+    }
+
+    /**
+     * The directory of the file, which is the directory of the section for a `_Meta.json`.
+     */
+    private fun DiffOperation.directory(): Path? = Path.of(filePath.path).normalize().parent
+
+    /**
+     * The directory of the section containing the case or section.
+     */
+    private fun DiffOperation.parentDirectory(): Path? = when (typeAction.type) {
+        Type.CASE -> directory()
+        Type.SECTION -> directory()?.parent
+    }
+
+    private val CREATING_ACTIONS = setOf(Action.ADDED, Action.MOVED_OR_UPDATED)
+}
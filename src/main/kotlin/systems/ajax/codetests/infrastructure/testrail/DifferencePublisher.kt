@@ -3,33 +3,43 @@ package systems.ajax.codetests.infrastructure.testrail
 import org.springframework.boot.context.event.ApplicationReadyEvent
 import org.springframework.context.event.EventListener
 import org.springframework.stereotype.Component
+import systems.ajax.codetests.application.model.diff.Action
 import systems.ajax.codetests.application.model.diff.Type
 import systems.ajax.codetests.application.port.input.ApplyDiffCaseInPort
 import systems.ajax.codetests.application.port.input.ApplyDiffSectionInPort
 import systems.ajax.codetests.application.port.input.FileDifferenceInPort
 import systems.ajax.codetests.application.port.output.TestrailManagerOutPort
+import systems.ajax.codetests.infrastructure.testrail.config.TestrailProperties
 
 @Component
 internal class DifferencePublisher(
     private val fileDifferenceInPort: FileDifferenceInPort,
     private val applyDiffSectionInPort: ApplyDiffSectionInPort,
     private val applyDiffCaseInPort: ApplyDiffCaseInPort,
+    private val testrailProperties: TestrailProperties,
 ) : TestrailManagerOutPort {
 
     @EventListener(ApplicationReadyEvent::class)
     override fun publish() {
-        fileDifferenceInPort.getDifference()
-            .entries.sortedBy { it.key.type.ordinal }.reversed()
-            .forEach { (typeAction, files) ->
-                when (typeAction.type) {
-                    Type.CASE -> files.forEach {
-                        applyDiffCaseInPort.execute(it, typeAction.action)
-                    }
+        val difference = fileDifferenceInPort.getDifference()
+        try {
+            applyDiffCaseInPort.prepare(
+                difference.filterKeys { it.type == Type.CASE && it.action in PARSED_ACTIONS }.values.flatten()
+            )
 
-                    Type.SECTION -> files.forEach {
-                        applyDiffSectionInPort.execute(it, typeAction.action)
-                    }
+            val operations = DifferenceGraph.of(difference)
+            DependencyScheduler(testrailProperties.publisher.parallelism).execute(operations) { (typeAction, file) ->
+                when (typeAction.type) {
+                    Type.CASE -> applyDiffCaseInPort.execute(file, typeAction.action)
+                    Type.SECTION -> applyDiffSectionInPort.execute(file, typeAction.action)
                 }
             }
+        } finally {
+            applyDiffCaseInPort.release()
+        }
+    }
+
+    private companion object {
+        private val PARSED_ACTIONS = setOf(Action.ADDED, Action.MODIFIED, Action.MOVED_OR_UPDATED)
     }
 }
@@ -15,6 +15,8 @@ class TestrailConfig(private val testrailProperties: TestrailProperties) {
             testrailProperties.baseUrl,
             testrailProperties.login,
             testrailProperties.token,
-        ).build()
+        ).metadataCache(testrailProperties.metadataCache.ttl, testrailProperties.metadataCache.maximumSize)
+            .coalesceRequests(true)
+            .build()
     }
 }
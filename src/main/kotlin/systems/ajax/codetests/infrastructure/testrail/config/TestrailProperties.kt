@@ -1,10 +1,23 @@
 package systems.ajax.codetests.infrastructure.testrail.config
 
 import org.springframework.boot.context.properties.ConfigurationProperties
+import java.time.Duration
 
 @ConfigurationProperties(prefix = "testrail")
 data class TestrailProperties(
     val baseUrl: String,
     val login: String,
     val token: String,
-)
+    val metadataCache: MetadataCache = MetadataCache(),
+    val publisher: Publisher = Publisher(),
+) {
+
+    data class MetadataCache(
+        val ttl: Duration = Duration.ofMinutes(10),
+        val maximumSize: Long = 100,
+    )
+
+    data class Publisher(
+        val parallelism: Int = 8,
+    )
+}
@@ -3,18 +3,20 @@ package systems.ajax.codetests.infrastructure.testrail.manager
 import client.testrail.TestRail
 import client.testrail.model.Case
 import client.testrail.model.CaseField
+import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Component
 import systems.ajax.codetests.application.model.FilePath
 import systems.ajax.codetests.application.model.appcase.AppCase
 import systems.ajax.codetests.application.port.output.CaseManagerOutPort
-import systems.ajax.codetests.infrastructure.testrail.client.TestrailCaseWebClient
+import systems.ajax.codetests.application.port.output.GitObjectReaderOutPort
 import systems.ajax.codetests.infrastructure.testrail.mapper.CaseMapper.toTestrailView
 import systems.ajax.codetests.infrastructure.testrail.repository.ExtractionUtils
 
 @Component
 internal class CaseManager(
     private val testrail: TestRail,
-    private val testrailCaseWebClient: TestrailCaseWebClient
+    private val gitObjectReader: GitObjectReaderOutPort,
+    @Value("\${testrail.suite.id}") private val suiteId: Int
 ) : CaseManagerOutPort {
 
     override fun add(appCase: AppCase, customCaseFields: List<CaseField>): Int {
@@ -30,7 +32,7 @@ internal class CaseManager(
     }
 
     override fun delete(filePath: FilePath) {
-        val extractIdFromDeletedFile = ExtractionUtils.extractIdFromDeletedFile(filePath)
+        val extractIdFromDeletedFile = ExtractionUtils.extractIdFromDeletedFile(filePath, gitObjectReader)
         if (extractIdFromDeletedFile != null) {
             testrail.cases().delete(extractIdFromDeletedFile).execute()
         }
@@ -38,7 +40,7 @@ internal class CaseManager(
 
     @Suppress("MapGetWithNotNullAssertionOperator", "UnsafeCallOnNullableType")
     override fun move(appCase: AppCase, customCaseFields: List<CaseField>) {
-        testrailCaseWebClient.move(appCase.id!!, appCase.sectionId)
+        testrail.cases().moveToSection(appCase.sectionId, suiteId, listOf(appCase.id!!)).execute()
         update(appCase, customCaseFields)
     }
 }
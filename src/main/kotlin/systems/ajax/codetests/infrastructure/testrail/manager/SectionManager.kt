@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Value
 import org.springframework.stereotype.Component
 import systems.ajax.codetests.application.model.AppSection
 import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.application.port.output.GitObjectReaderOutPort
 import systems.ajax.codetests.application.port.output.SectionManagerOutPort
 import systems.ajax.codetests.infrastructure.testrail.client.TestrailSectionWebClient
 import systems.ajax.codetests.infrastructure.testrail.mapper.SectionMapper.toTestrailView
@@ -14,6 +15,7 @@ import systems.ajax.codetests.infrastructure.testrail.repository.ExtractionUtils
 @Component
 internal class SectionManager(
     private val testrail: TestRail,
+    private val gitObjectReader: GitObjectReaderOutPort,
     private val testrailSectionWebClient: TestrailSectionWebClient,
     @Value("\${testrail.project.id}") private val projectId: Int,
     @Value("\${testrail.suite.id}") private val suiteId: Int
@@ -30,7 +32,7 @@ internal class SectionManager(
     }
 
     override fun delete(filePath: FilePath) {
-        val extractIdFromDeletedFile = ExtractionUtils.extractIdFromDeletedFile(filePath)
+        val extractIdFromDeletedFile = ExtractionUtils.extractIdFromDeletedFile(filePath, gitObjectReader)
         if (extractIdFromDeletedFile != null) {
             testrail.sections().delete(extractIdFromDeletedFile).execute()
         }
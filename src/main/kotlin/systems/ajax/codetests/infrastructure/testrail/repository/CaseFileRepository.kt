@@ -23,14 +23,23 @@ import systems.ajax.codetests.infrastructure.FileIdWriter.writeIdToCaseFile
 import systems.ajax.codetests.infrastructure.testrail.mapper.CaseMapper
 import systems.ajax.codetests.infrastructure.testrail.mapper.SupportedTags
 import systems.ajax.codetests.infrastructure.testrail.repository.ExtractionUtils.DELIMITER
-import systems.ajax.codetests.infrastructure.testrail.repository.ExtractionUtils.extractSectionIdFromFile
 import java.io.File
 import java.io.File.separator
+import java.nio.file.Files
 import java.nio.file.Paths
+import java.security.MessageDigest
+import java.util.HexFormat
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.Executors
 import kotlin.jvm.optionals.getOrNull
 
 @Component
-class CaseFileRepository : CaseRepositoryOutPort {
+class CaseFileRepository(
+    private val metaIndex: MetaIndex,
+) : CaseRepositoryOutPort {
+
+    // parsed features by the hash of their content, kept from parse until clearParsed at the end of a publish run
+    private val parsedFeatures = ConcurrentHashMap<String, ParsedFeature>()
 
     override fun writeIdToFile(fileId: FileId) {
         val caseFile = File(fileId.filePath.path)
@@ -43,41 +52,75 @@ class CaseFileRepository : CaseRepositoryOutPort {
     }
 
     override fun get(filePath: FilePath): AppCase {
-        return getCaseFromFile(filePath.path)
+        val feature = getFeature(filePath.path)
+        return AppCase(
+            id = feature.tags[SupportedTags.ID]?.toInt(),
+            title = feature.title,
+            // the section may get its id during the run, so it is looked up every time rather than cached
+            sectionId = requireNotNull(metaIndex.get(Paths.get(extractParentFolder(filePath.path)))?.id) {
+                "sectionId should not be null"
+            },
+            type = feature.tags[SupportedTags.TYPE]?.let { CaseType.valueOf(it) },
+            priority = feature.tags[SupportedTags.PRIORITY]?.let { PriorityType.valueOf(it) },
+            estimate = feature.tags[SupportedTags.ESTIMATE],
+            refs = feature.tags[SupportedTags.REFS],
+            precondition = feature.preconditions,
+            steps = feature.steps,
+        )
+    }
+
+    override fun parse(filePaths: List<FilePath>) {
+        if (filePaths.isEmpty()) {
+            return
+        }
+        val failures = Executors.newFixedThreadPool(minOf(filePaths.size, PARSE_THREADS)).use { executor ->
+            filePaths
+                .map { filePath -> filePath to executor.submit<Unit> { getFeature(filePath.path) } }
+                .mapNotNull { (filePath, parsed) ->
+                    runCatching { parsed.get() }.exceptionOrNull()?.let { filePath to (it.cause ?: it) }
+                }
+        }
+        if (failures.isNotEmpty()) {
+            val exception = IllegalArgumentException(
+                failures.joinToString("\n", "Failed to parse ${failures.size} feature files:\n") { (filePath, error) ->
+                    "${filePath.path}: ${error.message}"
+                }
+            )
+            failures.forEach { (_, error) -> exception.addSuppressed(error) }
+            throw exception
+        }
     }
 
-    private fun getCaseFromFile(url: String): AppCase {
-        val envelope: Envelope = PARSER.parse(
-            Paths.get(url)
-        ).toList()[0]
+    override fun clearParsed() {
+        parsedFeatures.clear()
+    }
 
-        var tags: Map<SupportedTags, String> = mapOf()
-        var title = ""
-        var preconditions: String? = null
-        var steps: List<AppStep> = listOf()
+    /**
+     * Gets the parsed feature of a file, parsing it only if a file with the same content has not been parsed yet.
+     */
+    private fun getFeature(url: String): ParsedFeature {
+        val content = Files.readAllBytes(Paths.get(url))
+        val hash = HexFormat.of().formatHex(MessageDigest.getInstance(HASH_ALGORITHM).digest(content))
+        return parsedFeatures[hash] ?: parseFeature(url, content).also { parsedFeatures[hash] = it }
+    }
 
-        envelope.gherkinDocument.flatMap { document ->
-            document.feature
-        }.ifPresent { feature: Feature ->
-            title = feature.name
-            tags = getTags(feature)
-            preconditions = getPreconditions(feature)
-            steps = getSteps(feature)
-        }
+    private fun parseFeature(url: String, content: ByteArray): ParsedFeature {
+        val envelope: Envelope = PARSER.parse(url, content)
+            .filter { it.gherkinDocument.isPresent || it.parseError.isPresent }
+            .findFirst()
+            .orElseThrow { IllegalArgumentException("No gherkin document in $url") }
+        envelope.parseError.ifPresent { error -> throw IllegalArgumentException(error.message) }
 
-        return AppCase(
-            id = tags[SupportedTags.ID]?.toInt(),
-            title = title,
-            sectionId = requireNotNull(extractSectionIdFromFile(extractParentFolder(url))) {
-                "sectionId should not be null"
-            },
-            type = tags[SupportedTags.TYPE]?.let { CaseType.valueOf(it) },
-            priority = tags[SupportedTags.PRIORITY]?.let { PriorityType.valueOf(it) },
-            estimate = tags[SupportedTags.ESTIMATE],
-            refs = tags[SupportedTags.REFS],
-            precondition = preconditions,
-            steps = steps,
-        )
+        return envelope.gherkinDocument.flatMap { document ->
+            document.feature
+        }.map { feature: Feature ->
+            ParsedFeature(
+                title = feature.name,
+                tags = getTags(feature),
+                preconditions = getPreconditions(feature),
+                steps = getSteps(feature),
+            )
+        }.orElse(ParsedFeature())
     }
 
     private fun getSteps(
@@ -169,9 +212,18 @@ class CaseFileRepository : CaseRepositoryOutPort {
             .plus(separator)
             .plus(META_SECTION_NAME)
 
+    private data class ParsedFeature(
+        val title: String = "",
+        val tags: Map<SupportedTags, String> = mapOf(),
+        val preconditions: String? = null,
+        val steps: List<AppStep> = listOf(),
+    )
+
     companion object {
         private val log = LoggerFactory.getLogger(CaseMapper::class.java)
         private const val META_SECTION_NAME = "_Meta.json"
+        private const val HASH_ALGORITHM = "SHA-256"
+        private val PARSE_THREADS = Runtime.getRuntime().availableProcessors()
 
         private val PARSER: GherkinParser = GherkinParser.builder()
             .includeSource(false)
@@ -1,37 +1,29 @@
 package systems.ajax.codetests.infrastructure.testrail.repository
 
-import kotlinx.serialization.json.Json
 import systems.ajax.codetests.application.model.FilePath
-import systems.ajax.codetests.infrastructure.testrail.repository.entity.Meta
-import java.io.BufferedReader
-import java.io.File
-import java.io.InputStreamReader
+import systems.ajax.codetests.application.port.output.GitObjectReaderOutPort
+import java.io.InputStream
+import java.util.Scanner
 import java.util.regex.Pattern
 
 object ExtractionUtils {
     const val DELIMITER = ":"
     const val ID = "@id"
 
-    fun extractIdFromDeletedFile(filePath: FilePath): Int? {
-        val process = ProcessBuilder("git", "show", "HEAD:${filePath.path}")
-            .redirectErrorStream(true)
-            .start()
+    private val ID_PATTERN: Pattern = Pattern.compile("\"id\"\\s*:\\s*(\\d+)|@id:(\\d+)")
 
-        val content = StringBuilder()
-        BufferedReader(InputStreamReader(process.inputStream)).use { reader ->
-            reader.lines().forEach { line -> content.appendLine(line) }
-        }
-
-        val regex = Pattern.compile("\"id\"\\s*:\\s*(\\d+)|@id:(\\d+)")
-        val matcher = regex.matcher(content.toString())
-        return matcher.takeIf { matcher.find() }?.let {
-            matcher.group(1)?.toIntOrNull() ?: matcher.group(2)?.toIntOrNull()
-        }
+    fun extractIdFromDeletedFile(filePath: FilePath, gitObjectReader: GitObjectReaderOutPort): Int? {
+        return gitObjectReader.readCommittedFile(filePath, ::extractId)
     }
 
-    fun extractSectionIdFromFile(url: String): Int? {
-        return File(url).takeIf { it.exists() }?.let {
-            Json.Default.decodeFromString<Meta>(it.readText()).id
+    /**
+     * Finds the first `"id"` of a `_Meta.json` or `@id` tag of a `.feature`, reading the content only up to it.
+     */
+    fun extractId(content: InputStream): Int? {
+        val scanner = Scanner(content, Charsets.UTF_8)
+        return scanner.findWithinHorizon(ID_PATTERN, 0)?.let {
+            val match = scanner.match()
+            match.group(1)?.toIntOrNull() ?: match.group(2)?.toIntOrNull()
         }
     }
 }
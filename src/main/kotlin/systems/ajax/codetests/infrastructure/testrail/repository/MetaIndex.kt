@@ -0,0 +1,68 @@
+package systems.ajax.codetests.infrastructure.testrail.repository
+
+import kotlinx.serialization.json.Json
+import org.springframework.stereotype.Component
+import systems.ajax.codetests.infrastructure.testrail.repository.entity.Meta
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.io.path.exists
+import kotlin.io.path.isRegularFile
+import kotlin.io.path.name
+import kotlin.io.path.readText
+
+/**
+ * In-memory index of the `_Meta.json` files of the sections. The first lookup under a resources folder reads every
+ * `_Meta.json` beneath it at once, so that no file is read and decoded more than once per run. Files outside of a
+ * resources folder are read on their first lookup. A file which cannot be read or decoded only fails its own lookups.
+ *
+ * Ids assigned during the run must be [put] here, since the index is not reloaded from the files.
+ */
+@Component
+class MetaIndex {
+
+    private val metas = ConcurrentHashMap<Path, Result<Meta?>>()
+    private val indexedRoots = ConcurrentHashMap.newKeySet<Path>()
+
+    /**
+     * @return the content of the meta file, or null if there is no such file
+     */
+    fun get(metaFile: Path): Meta? {
+        val key = metaFile.toAbsolutePath().normalize()
+        metas[key]?.let { return it.getOrThrow() }
+
+        val root = generateSequence(key.parent) { it.parent }.firstOrNull { it.name == RESOURCES_FOLDER }
+        // marked only once read, so that a walk which failed is tried again on the next lookup
+        if (root != null && root !in indexedRoots) {
+            index(root)
+            indexedRoots.add(root)
+        }
+        return metas.computeIfAbsent(key) { runCatching { read(it) } }.getOrThrow()
+    }
+
+    fun put(metaFile: Path, meta: Meta) {
+        metas[metaFile.toAbsolutePath().normalize()] = Result.success(meta)
+    }
+
+    private fun index(root: Path) {
+        Files.walk(root).use { files ->
+            files.parallel()
+                .filter { it.name == META_SECTION_NAME && it.isRegularFile() }
+                // an id put while the folder is being read is newer than the file read here
+                .forEach { metas.putIfAbsent(it, runCatching { read(it) }) }
+        }
+    }
+
+    private fun read(metaFile: Path): Meta? {
+        if (!metaFile.exists()) {
+            return null
+        }
+        val content = metaFile.readText()
+        return if (content.isEmpty()) Meta() else Json.decodeFromString<Meta>(content)
+    }
+
+    private companion object {
+        private const val RESOURCES_FOLDER = "resources"
+        private const val META_SECTION_NAME = "_Meta.json"
+    }
+}
@@ -11,39 +11,38 @@ import systems.ajax.codetests.application.model.FilePath
 import systems.ajax.codetests.application.port.output.SectionRepositoryOutPort
 import systems.ajax.codetests.infrastructure.testrail.repository.entity.Meta
 import java.io.File
+import java.nio.file.Path
 
 @Component
-class SectionFileRepository : SectionRepositoryOutPort {
+class SectionFileRepository(
+    private val metaIndex: MetaIndex,
+) : SectionRepositoryOutPort {
 
     override fun writeIdToSectionFile(fileId: FileId) {
         val metaSectionFile = File(fileId.filePath.path)
 
         if (metaSectionFile.isValidFile()) {
-            val parsedData = readJson(metaSectionFile)
+            val parsedData = metaIndex.get(metaSectionFile.toPath()) ?: Meta()
             val withUpdatedId = parsedData.copy(id = fileId.id)
             metaSectionFile.writeText(Json.encodeToString<Meta>(withUpdatedId))
+            metaIndex.put(metaSectionFile.toPath(), withUpdatedId)
         } else {
             log.warn("Invalid .section file path! {}", fileId.filePath)
         }
     }
 
     override fun get(filePath: FilePath): AppSection {
-        val meta: Meta = readJson(File(filePath.path))
+        val meta: Meta = requireNotNull(metaIndex.get(Path.of(filePath.path))) {
+            "Section file ${filePath.path} does not exist"
+        }
         return AppSection(
             meta.id,
             extractSectionName(filePath.path),
             meta.description,
-            ExtractionUtils.extractSectionIdFromFile(extractParentFolder(filePath.path))
+            metaIndex.get(Path.of(extractParentFolder(filePath.path)))?.id
         )
     }
 
-    private fun readJson(metaSectionFile: File): Meta {
-        if (metaSectionFile.readText().isNotEmpty()) {
-            return Json.decodeFromString<Meta>(metaSectionFile.readText())
-        }
-        return Meta()
-    }
-
     private fun extractParentFolder(url: String): String = url.substringBeforeLast(File.separator)
         .substringBeforeLast(File.separator)
         .plus(File.separator)
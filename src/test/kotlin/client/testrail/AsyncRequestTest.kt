@@ -0,0 +1,113 @@
+package client.testrail
+
+import client.testrail.transport.Transport
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertIs
+import kotlin.test.assertTrue
+
+internal class AsyncRequestTest {
+
+    private val requestsInFlight = AtomicInteger()
+    private val maxRequestsInFlight = AtomicInteger()
+    private val virtualThreads: MutableSet<Boolean> = ConcurrentHashMap.newKeySet()
+
+    @Test
+    fun `should complete each future with its own response`() {
+        // GIVEN
+        val testRail = testRail().build()
+
+        // WHEN
+        val futures = (1..REQUEST_COUNT).map { testRail.projects().get(it).executeAsync() }
+
+        // THEN
+        assertEquals((1..REQUEST_COUNT).toList(), futures.map { it.get().id })
+        assertEquals(setOf(true), virtualThreads)
+    }
+
+    @Test
+    fun `should keep the requests in flight within the concurrency limit`() {
+        // GIVEN
+        val testRail = testRail().maxConcurrentRequests(4).adaptiveConcurrency(false).build()
+
+        // WHEN
+        val futures = (1..REQUEST_COUNT).map { testRail.projects().get(it).executeAsync() }
+        futures.forEach { it.get() }
+
+        // THEN
+        assertTrue(maxRequestsInFlight.get() in 2..4, "max ${maxRequestsInFlight.get()} requests in flight")
+    }
+
+    @Test
+    fun `should complete the future exceptionally with the error of the request`() {
+        // GIVEN
+        val testRail = testRail().build()
+
+        // WHEN
+        val exception = assertThrows<ExecutionException> { testRail.suites().get(404).executeAsync().get() }
+
+        // THEN
+        val cause = assertIs<TestRailException>(exception.cause)
+        assertEquals(400, cause.responseCode)
+    }
+
+    private fun testRail(): TestRail.Builder {
+        val transport = Transport.httpClient(TIMEOUT, TIMEOUT)
+        return TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password")
+            .transport { request ->
+                virtualThreads.add(Thread.currentThread().isVirtual)
+                maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), ::maxOf)
+                try {
+                    transport.send(request)
+                } finally {
+                    requestsInFlight.decrementAndGet()
+                }
+            }
+    }
+
+    companion object {
+        private const val REQUEST_COUNT = 20
+        private val TIMEOUT = Duration.ofSeconds(10)
+        lateinit var wireMockServer: WireMockServer
+
+        @BeforeAll
+        @JvmStatic
+        fun setUp() {
+            wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+            wireMockServer.start()
+            (1..REQUEST_COUNT).forEach { id ->
+                wireMockServer.stubFor(
+                    get(urlEqualTo("/index.php?/api/v2/get_project/$id")).willReturn(
+                        aResponse().withStatus(200).withHeader("Content-Type", "application/json")
+                            .withBody("""{"id":$id,"name":"Project $id"}""").withFixedDelay(50)
+                    )
+                )
+            }
+            wireMockServer.stubFor(
+                get(urlPathEqualTo("/index.php")).atPriority(10).willReturn(
+                    aResponse().withStatus(400).withHeader("Content-Type", "application/json")
+                        .withBody("""{"error":"Field :suite_id is not a valid test suite."}""")
+                )
+            )
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDown() {
+            wireMockServer.stop()
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package client.testrail
+
+import client.testrail.model.Case
+import client.testrail.model.CaseFieldSchema
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.equalToJson
+import com.github.tomakehurst.wiremock.client.WireMock.post
+import com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+
+internal class CaseBulkUpdateTest {
+
+    @Test
+    fun `should send only the ids and the fields which are set`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(UPDATE_CASES + 1))
+                .willReturn(aResponse().withStatus(200))
+        )
+
+        // WHEN
+        testRail.cases().updateAll(1, listOf(1, 2), Case().setPriorityId(3)).execute()
+
+        // THEN
+        wireMockServer.verify(
+            postRequestedFor(urlEqualTo(UPDATE_CASES + 1))
+                .withRequestBody(equalToJson("""{"case_ids":[1,2],"priority_id":3}"""))
+        )
+    }
+
+    @Test
+    fun `should leave out the template id which adding a case defaults`() {
+        // GIVEN
+        wireMockServer.stubFor(post(urlEqualTo(UPDATE_CASES + 4)).willReturn(aResponse().withStatus(200)))
+        wireMockServer.stubFor(
+            post(urlEqualTo(ADD_CASE + 1))
+                .willReturn(
+                    aResponse().withStatus(200).withHeader("Content-Type", "application/json")
+                        .withBody("""{"id":1,"title":"Case","section_id":1,"template_id":2}""")
+                )
+        )
+
+        // WHEN
+        testRail.cases().updateAll(4, listOf(1), Case().setTemplateId(1).setPriorityId(3)).execute()
+        testRail.cases().add(1, Case().setTitle("Case"), CaseFieldSchema.of(listOf())).execute()
+
+        // THEN
+        wireMockServer.verify(
+            postRequestedFor(urlEqualTo(UPDATE_CASES + 4))
+                .withRequestBody(equalToJson("""{"case_ids":[1],"priority_id":3}"""))
+        )
+        wireMockServer.verify(
+            postRequestedFor(urlEqualTo(ADD_CASE + 1))
+                .withRequestBody(equalToJson("""{"title":"Case","template_id":2}"""))
+        )
+    }
+
+    @Test
+    fun `should split more ids than the bulk size into several requests`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(UPDATE_CASES + 2))
+                .willReturn(aResponse().withStatus(200))
+        )
+        val ids = (1..600).toList()
+
+        // WHEN
+        testRail.cases().updateAll(2, ids, Case().setPriorityId(3)).execute()
+
+        // THEN
+        wireMockServer.verify(3, postRequestedFor(urlEqualTo(UPDATE_CASES + 2)))
+        ids.chunked(250).forEach { chunk ->
+            wireMockServer.verify(
+                postRequestedFor(urlEqualTo(UPDATE_CASES + 2))
+                    .withRequestBody(equalToJson("""{"case_ids":$chunk,"priority_id":3}"""))
+            )
+        }
+    }
+
+    @Test
+    fun `should split ids by the configured bulk size`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(UPDATE_CASES + 3))
+                .willReturn(aResponse().withStatus(200))
+        )
+        val smallBulks = TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password")
+            .bulkSize(2)
+            .build()
+
+        // WHEN
+        smallBulks.cases().updateAll(3, listOf(1, 2, 3), Case().setPriorityId(3)).execute()
+
+        // THEN
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo(UPDATE_CASES + 3)))
+        wireMockServer.verify(
+            postRequestedFor(urlEqualTo(UPDATE_CASES + 3))
+                .withRequestBody(equalToJson("""{"case_ids":[3],"priority_id":3}"""))
+        )
+    }
+
+    @Test
+    fun `should delete all the cases of a suite`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(DELETE_CASES + 1))
+                .willReturn(aResponse().withStatus(200))
+        )
+
+        // WHEN
+        testRail.cases().deleteAll(1, listOf(4, 5)).execute()
+
+        // THEN
+        wireMockServer.verify(
+            1,
+            postRequestedFor(urlEqualTo(DELETE_CASES + 1))
+                .withRequestBody(equalToJson("""{"case_ids":[4,5]}"""))
+        )
+    }
+
+    @Test
+    fun `should move all the cases to a section`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(MOVE_CASES_TO_SECTION + 7))
+                .willReturn(aResponse().withStatus(200))
+        )
+
+        // WHEN
+        testRail.cases().moveToSection(7, 1, listOf(4, 5)).execute()
+
+        // THEN
+        wireMockServer.verify(
+            1,
+            postRequestedFor(urlEqualTo(MOVE_CASES_TO_SECTION + 7))
+                .withRequestBody(equalToJson("""{"suite_id":1,"case_ids":[4,5]}"""))
+        )
+    }
+
+    companion object {
+        private const val UPDATE_CASES = "/index.php?/api/v2/update_cases/"
+        private const val ADD_CASE = "/index.php?/api/v2/add_case/"
+        private const val DELETE_CASES = "/index.php?/api/v2/delete_cases/"
+        private const val MOVE_CASES_TO_SECTION = "/index.php?/api/v2/move_cases_to_section/"
+        lateinit var wireMockServer: WireMockServer
+        lateinit var testRail: TestRail
+
+        @BeforeAll
+        @JvmStatic
+        fun setUp() {
+            wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+            wireMockServer.start()
+            testRail = TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password").build()
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDown() {
+            wireMockServer.stop()
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package client.testrail
+
+import client.testrail.model.Project
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.post
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.time.Duration
+import kotlin.test.assertEquals
+
+internal class MetadataCacheTest {
+
+    private val wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+
+    @BeforeEach
+    fun setUp() {
+        wireMockServer.start()
+        wireMockServer.stubFor(get(urlEqualTo(GET_PROJECT)).willReturn(json("""{"id":1,"name":"Project"}""")))
+        wireMockServer.stubFor(get(urlEqualTo(GET_CASE_FIELDS)).willReturn(json("[]")))
+        wireMockServer.stubFor(post(urlEqualTo(UPDATE_PROJECT)).willReturn(json("""{"id":1,"name":"Renamed"}""")))
+    }
+
+    @AfterEach
+    fun tearDown() {
+        wireMockServer.stop()
+    }
+
+    @Test
+    fun `should serve a cached get from the first response`() {
+        // GIVEN
+        val testRail = testRail().metadataCache(Duration.ofMinutes(1), 10).build()
+
+        // WHEN
+        val responses = (1..3).map { testRail.projects().get(1).execute() }
+
+        // THEN
+        assertEquals(listOf("Project", "Project", "Project"), responses.map { it.name })
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(GET_PROJECT)))
+    }
+
+    @Test
+    fun `should fetch again after an update of the project`() {
+        // GIVEN
+        val testRail = testRail().metadataCache(Duration.ofMinutes(1), 10).build()
+        testRail.projects().get(1).execute()
+        testRail.caseFields().list().execute()
+
+        // WHEN
+        testRail.projects().update(Project().setId(1).setName("Renamed")).execute()
+        testRail.projects().get(1).execute()
+        testRail.caseFields().list().execute()
+
+        // THEN
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_PROJECT)))
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_CASE_FIELDS)))
+    }
+
+    @Test
+    fun `should fetch again once the ttl has passed`() {
+        // GIVEN
+        val ttl = Duration.ofMillis(200)
+        val testRail = testRail().metadataCache(ttl, 10).build()
+        testRail.caseFields().list().execute()
+
+        // WHEN
+        testRail.caseFields().list().execute()
+        Thread.sleep(ttl.toMillis() + 50)
+        testRail.caseFields().list().execute()
+
+        // THEN
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_CASE_FIELDS)))
+    }
+
+    @Test
+    fun `should not cache without a metadata cache configured`() {
+        // GIVEN
+        val testRail = testRail().build()
+
+        // WHEN
+        repeat(2) { testRail.projects().get(1).execute() }
+
+        // THEN
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_PROJECT)))
+    }
+
+    private fun testRail(): TestRail.Builder =
+        TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password")
+
+    private fun json(body: String) = aResponse()
+        .withStatus(200)
+        .withHeader("Content-Type", "application/json")
+        .withBody(body)
+
+    companion object {
+        private const val GET_PROJECT = "/index.php?/api/v2/get_project/1"
+        private const val GET_CASE_FIELDS = "/index.php?/api/v2/get_case_fields"
+        private const val UPDATE_PROJECT = "/index.php?/api/v2/update_project/1"
+    }
+}
@@ -0,0 +1,144 @@
+package client.testrail
+
+import client.testrail.simulator.TestRailSimulator
+import client.testrail.transport.Transport
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.time.Duration
+import java.util.Collections
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.test.assertEquals
+import kotlin.test.assertFalse
+import kotlin.test.assertTrue
+
+internal class PaginatedRequestTest {
+
+    private val simulator = TestRailSimulator.start()
+    private val requestedUrls: MutableList<String> = Collections.synchronizedList(mutableListOf())
+    private val requestsInFlight = AtomicInteger()
+    private lateinit var testRail: TestRail
+    private var suiteId: Int = 0
+    private val sectionIds = mutableListOf<Int>()
+
+    @BeforeEach
+    fun setUp() {
+        suiteId = simulator.addSuite(PROJECT_ID, "Master")
+        (1..SECTION_COUNT).forEach { sectionIds.add(simulator.addSection(suiteId, null, "Section $it")) }
+        val transport = Transport.httpClient(TIMEOUT, TIMEOUT)
+        testRail = TestRail.builder(simulator.endPoint, "user", "password")
+            .transport { request ->
+                requestedUrls.add(request.url)
+                requestsInFlight.incrementAndGet()
+                try {
+                    transport.send(request)
+                } finally {
+                    requestsInFlight.decrementAndGet()
+                }
+            }
+            .build()
+    }
+
+    @AfterEach
+    fun tearDown() {
+        simulator.close()
+    }
+
+    @Test
+    fun `should fetch the next page only when the current one is consumed`() {
+        // GIVEN
+        val iterator = testRail.sections().list(PROJECT_ID, suiteId).withLimit(PAGE_SIZE).iterator()
+
+        // WHEN
+        val firstPage = (1..PAGE_SIZE).map { iterator.next().id }
+        val requestsForFirstPage = pageRequests()
+        val firstOfSecondPage = iterator.next().id
+
+        // THEN
+        assertEquals(sectionIds.take(PAGE_SIZE), firstPage)
+        assertEquals(1, requestsForFirstPage)
+        assertEquals(sectionIds[PAGE_SIZE], firstOfSecondPage)
+        assertEquals(2, pageRequests())
+    }
+
+    @Test
+    fun `should concatenate all the pages on execute`() {
+        // GIVEN
+        val request = testRail.sections().list(PROJECT_ID, suiteId).withLimit(PAGE_SIZE)
+
+        // WHEN
+        val actual = request.execute()
+
+        // THEN
+        assertEquals(sectionIds, actual.map { it.id })
+        assertEquals(PAGE_COUNT, pageRequests())
+        assertTrue(requestedUrls.last().contains("offset=${(PAGE_COUNT - 1) * PAGE_SIZE}"))
+    }
+
+    @Test
+    fun `should return prefetched pages in order and stop at the last page`() {
+        // GIVEN
+        simulator.latency(Duration.ZERO, Duration.ofMillis(50))
+        val request = testRail.sections().list(PROJECT_ID, suiteId).withLimit(PAGE_SIZE).withPrefetch(4)
+
+        // WHEN
+        val iterator = request.iterator()
+        val actual = iterator.asSequence().map { it.id }.toList()
+
+        // THEN
+        assertEquals(sectionIds, actual)
+        assertFalse(iterator.hasNext())
+        // at most the prefetched pages past the last one are requested on top of the pages of the list
+        val pageRequests = pageRequests()
+        assertTrue(pageRequests in PAGE_COUNT..PAGE_COUNT + 4, "requested $pageRequests pages")
+    }
+
+    @Test
+    fun `should cancel the prefetched pages when the iterator is closed`() {
+        // GIVEN
+        simulator.latency(Duration.ofSeconds(2), Duration.ofSeconds(2))
+        val request = testRail.sections().list(PROJECT_ID, suiteId).withLimit(PAGE_SIZE).withPrefetch(4)
+
+        // WHEN
+        val first = request.iterator().use { iterator -> iterator.next() }
+        val cancelled = waitFor { requestsInFlight.get() == 0 }
+
+        // THEN
+        assertEquals(sectionIds.first(), first.id)
+        assertTrue(cancelled, "${requestsInFlight.get()} prefetched requests still in flight")
+    }
+
+    @Test
+    fun `should cancel the prefetched pages when the stream is closed`() {
+        // GIVEN
+        simulator.latency(Duration.ofSeconds(2), Duration.ofSeconds(2))
+        val request = testRail.sections().list(PROJECT_ID, suiteId).withLimit(PAGE_SIZE).withPrefetch(4)
+
+        // WHEN
+        val firstTwo = request.stream().use { stream -> stream.limit(2).map { it.id }.toList() }
+        val cancelled = waitFor { requestsInFlight.get() == 0 }
+
+        // THEN
+        assertEquals(sectionIds.take(2), firstTwo)
+        assertTrue(cancelled, "${requestsInFlight.get()} prefetched requests still in flight")
+    }
+
+    private fun pageRequests() = synchronized(requestedUrls) { requestedUrls.count { it.contains("get_sections") } }
+
+    private fun waitFor(condition: () -> Boolean): Boolean {
+        // well below the latency, so only cancelled requests can have ended, the ones not sent yet are never sent
+        val deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos()
+        while (!condition() && System.nanoTime() < deadline) {
+            Thread.sleep(10)
+        }
+        return condition()
+    }
+
+    companion object {
+        private const val PROJECT_ID: Int = 1
+        private const val SECTION_COUNT: Int = 23
+        private const val PAGE_SIZE: Int = 5
+        private const val PAGE_COUNT: Int = (SECTION_COUNT + PAGE_SIZE - 1) / PAGE_SIZE
+        private val TIMEOUT = Duration.ofSeconds(10)
+    }
+}
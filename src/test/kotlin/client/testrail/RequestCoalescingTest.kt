@@ -0,0 +1,100 @@
+package client.testrail
+
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertSame
+
+internal class RequestCoalescingTest {
+
+    private val wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+
+    @BeforeEach
+    fun setUp() {
+        wireMockServer.start()
+        listOf(1, 2).forEach { id ->
+            wireMockServer.stubFor(
+                get(urlEqualTo(GET_SECTION + id)).willReturn(
+                    aResponse().withStatus(200).withHeader("Content-Type", "application/json")
+                        .withBody("""{"id":$id,"name":"Section $id"}""").withFixedDelay(RESPONSE_DELAY_MILLIS)
+                )
+            )
+        }
+    }
+
+    @AfterEach
+    fun tearDown() {
+        wireMockServer.stop()
+    }
+
+    @Test
+    fun `should send one request for two identical gets in flight`() {
+        // GIVEN
+        val testRail = testRail(coalesceRequests = true)
+
+        // WHEN
+        val first = testRail.sections().get(1).executeAsync()
+        val second = testRail.sections().get(1).executeAsync()
+
+        // THEN
+        assertSame(first.get(), second.get())
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(GET_SECTION + 1)))
+    }
+
+    @Test
+    fun `should send a request for each distinct get`() {
+        // GIVEN
+        val testRail = testRail(coalesceRequests = true)
+
+        // WHEN
+        val first = testRail.sections().get(1).executeAsync()
+        val second = testRail.sections().get(2).executeAsync()
+
+        // THEN
+        assertEquals(listOf(1, 2), listOf(first.get().id, second.get().id))
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(GET_SECTION + 1)))
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo(GET_SECTION + 2)))
+    }
+
+    @Test
+    fun `should send a request again once the previous one has completed`() {
+        // GIVEN
+        val testRail = testRail(coalesceRequests = true)
+
+        // WHEN
+        repeat(2) { testRail.sections().get(1).execute() }
+
+        // THEN
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_SECTION + 1)))
+    }
+
+    @Test
+    fun `should not coalesce by default`() {
+        // GIVEN
+        val testRail = testRail(coalesceRequests = false)
+
+        // WHEN
+        val futures = (1..2).map { testRail.sections().get(1).executeAsync() }
+        futures.forEach { it.get() }
+
+        // THEN
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_SECTION + 1)))
+    }
+
+    private fun testRail(coalesceRequests: Boolean): TestRail =
+        TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password")
+            .coalesceRequests(coalesceRequests)
+            .build()
+
+    companion object {
+        private const val GET_SECTION = "/index.php?/api/v2/get_section/"
+        private const val RESPONSE_DELAY_MILLIS = 300
+    }
+}
@@ -0,0 +1,50 @@
+package client.testrail
+
+import client.testrail.model.CaseFieldSchema
+import org.junit.jupiter.api.Test
+import java.util.Date
+import kotlin.test.assertEquals
+import kotlin.test.assertNotSame
+import kotlin.test.assertNull
+
+internal class RequestImmutabilityTest {
+
+    private val testRail = TestRail.builder("http://localhost", "user", "password").build()
+    private val cases = testRail.cases().list(1, 2, CaseFieldSchema.of(listOf()))
+
+    @Test
+    fun `should leave the original request unchanged on with`() {
+        // GIVEN
+        val original = cases.withSectionId(3)
+
+        // WHEN
+        val limited = original.withLimit(10)
+
+        // THEN
+        assertNotSame(original, limited)
+        assertNull(original.limit())
+        assertEquals(10, limited.limit())
+        assertEquals(3, limited.sectionId())
+        assertEquals("http://localhost/index.php?/api/v2/get_cases/1&suite_id=2&section_id=3", original.url)
+        assertEquals("http://localhost/index.php?/api/v2/get_cases/1&suite_id=2&section_id=3&limit=10", limited.url)
+    }
+
+    @Test
+    fun `should not be changed by later changes to the values passed`() {
+        // GIVEN
+        val typeIds = mutableListOf(1, 2)
+        val updatedAfter = Date(1_700_000_000_000)
+
+        // WHEN
+        val request = cases.withTypeId(typeIds).withUpdatedAfter(updatedAfter)
+        typeIds.add(3)
+        updatedAfter.time = 0
+
+        // THEN
+        assertEquals(listOf(1, 2), request.typeId())
+        assertEquals(
+            "http://localhost/index.php?/api/v2/get_cases/1&suite_id=2&type_id=1%2C2&updated_after=1700000000",
+            request.url
+        )
+    }
+}
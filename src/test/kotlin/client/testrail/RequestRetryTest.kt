@@ -0,0 +1,178 @@
+package client.testrail
+
+import client.testrail.model.Project
+import client.testrail.transport.Transport
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.equalTo
+import com.github.tomakehurst.wiremock.client.WireMock.equalToJson
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.post
+import com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import com.github.tomakehurst.wiremock.stubbing.Scenario
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.time.Duration
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+internal class RequestRetryTest {
+
+    private val wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+
+    @BeforeEach
+    fun setUp() {
+        wireMockServer.start()
+    }
+
+    @AfterEach
+    fun tearDown() {
+        wireMockServer.stop()
+    }
+
+    @Test
+    fun `should retry a get which timed out`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            get(urlEqualTo(GET_PROJECT)).inScenario(SCENARIO).whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(project().withFixedDelay(1000))
+                .willSetStateTo(ANSWERED)
+        )
+        wireMockServer.stubFor(
+            get(urlEqualTo(GET_PROJECT)).inScenario(SCENARIO).whenScenarioStateIs(ANSWERED)
+                .willReturn(project())
+        )
+        val timeout = Duration.ofMillis(200)
+        val testRail = testRail().transport(Transport.urlConnection(timeout, timeout)).build()
+
+        // WHEN
+        val actual = testRail.projects().get(1).execute()
+
+        // THEN
+        assertEquals("Project", actual.name)
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_PROJECT)))
+    }
+
+    @Test
+    fun `should wait for retry after and retry a get rejected for overload`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            get(urlEqualTo(GET_PROJECT)).inScenario(SCENARIO).whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+                .willSetStateTo(ANSWERED)
+        )
+        wireMockServer.stubFor(
+            get(urlEqualTo(GET_PROJECT)).inScenario(SCENARIO).whenScenarioStateIs(ANSWERED)
+                .willReturn(project())
+        )
+        val testRail = testRail().build()
+        val start = System.nanoTime()
+
+        // WHEN
+        val actual = testRail.projects().get(1).execute()
+
+        // THEN
+        assertEquals("Project", actual.name)
+        assertTrue(Duration.ofNanos(System.nanoTime() - start) >= Duration.ofSeconds(1))
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo(GET_PROJECT)))
+    }
+
+    @Test
+    fun `should give up on a get after the maximum number of retries`() {
+        // GIVEN
+        wireMockServer.stubFor(get(urlEqualTo(GET_PROJECT)).willReturn(aResponse().withStatus(503)))
+        val testRail = testRail().build()
+
+        // WHEN
+        val exception = assertThrows<TestRailException> { testRail.projects().get(1).execute() }
+
+        // THEN
+        assertEquals(503, exception.responseCode)
+        wireMockServer.verify(MAX_RETRIES + 1, getRequestedFor(urlEqualTo(GET_PROJECT)))
+    }
+
+    @Test
+    fun `should not retry a post which is not marked retry safe`() {
+        // GIVEN
+        wireMockServer.stubFor(post(urlEqualTo(DELETE_CASE)).willReturn(aResponse().withStatus(429)))
+        val testRail = testRail().build()
+
+        // WHEN
+        val exception = assertThrows<TestRailException> { testRail.cases().delete(1).execute() }
+
+        // THEN
+        assertEquals(429, exception.responseCode)
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo(DELETE_CASE)))
+    }
+
+    @Test
+    fun `should retry a post marked retry safe`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(DELETE_CASE)).inScenario(SCENARIO).whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo(ANSWERED)
+        )
+        wireMockServer.stubFor(
+            post(urlEqualTo(DELETE_CASE)).inScenario(SCENARIO).whenScenarioStateIs(ANSWERED)
+                .willReturn(aResponse().withStatus(200))
+        )
+        val testRail = testRail().build()
+
+        // WHEN
+        testRail.cases().delete(1).withRetrySafe().execute()
+
+        // THEN
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo(DELETE_CASE)))
+    }
+
+    @Test
+    fun `should send bodies uncompressed once compression is rejected`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            post(urlEqualTo(ADD_PROJECT)).atPriority(1)
+                .withHeader("Content-Encoding", equalTo("gzip"))
+                .willReturn(aResponse().withStatus(415))
+        )
+        wireMockServer.stubFor(post(urlEqualTo(ADD_PROJECT)).atPriority(2).willReturn(project()))
+        val testRail = testRail().compressRequests(1).build()
+
+        // WHEN
+        repeat(2) { testRail.projects().add(Project().setName("Project")).execute() }
+
+        // THEN
+        wireMockServer.verify(
+            1,
+            postRequestedFor(urlEqualTo(ADD_PROJECT)).withHeader("Content-Encoding", equalTo("gzip"))
+        )
+        wireMockServer.verify(
+            2,
+            postRequestedFor(urlEqualTo(ADD_PROJECT))
+                .withoutHeader("Content-Encoding")
+                .withRequestBody(equalToJson("""{"name":"Project"}"""))
+        )
+    }
+
+    private fun testRail(): TestRail.Builder =
+        TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password")
+            .retries(MAX_RETRIES, Duration.ofMillis(1), Duration.ofMillis(10))
+
+    private fun project() = aResponse()
+        .withStatus(200)
+        .withHeader("Content-Type", "application/json")
+        .withBody("""{"id":1,"name":"Project"}""")
+
+    companion object {
+        private const val MAX_RETRIES = 3
+        private const val GET_PROJECT = "/index.php?/api/v2/get_project/1"
+        private const val DELETE_CASE = "/index.php?/api/v2/delete_case/1"
+        private const val ADD_PROJECT = "/index.php?/api/v2/add_project"
+        private const val SCENARIO = "retry"
+        private const val ANSWERED = "answered"
+    }
+}
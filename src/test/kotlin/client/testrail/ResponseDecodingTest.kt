@@ -0,0 +1,105 @@
+package client.testrail
+
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.test.assertEquals
+
+internal class ResponseDecodingTest {
+
+    @Test
+    fun `should decode a list which is not paginated`() {
+        // GIVEN
+        stubGet(GET_SECTIONS + 1, """[{"id":1,"name":"A"},{"id":2,"name":"B"}]""")
+
+        // WHEN
+        val actual = testRail.sections().list(1, 1).execute()
+
+        // THEN
+        assertEquals(listOf("A", "B"), actual.map { it.name })
+    }
+
+    @Test
+    fun `should decode a paginated list and fetch its next page`() {
+        // GIVEN
+        stubGet(
+            GET_SECTIONS + 2,
+            """{"offset":0,"limit":1,"size":1,"_links":{"next":"/api/v2/get_sections/1&suite_id=2&limit=1&offset=1","prev":null},"sections":[{"id":1,"name":"A"}]}"""
+        )
+        stubGet(
+            "${GET_SECTIONS}2&offset=1&limit=1",
+            """{"offset":1,"limit":1,"size":1,"_links":{"next":null,"prev":null},"sections":[{"id":2,"name":"B"}]}"""
+        )
+
+        // WHEN
+        val actual = testRail.sections().list(1, 2).execute()
+
+        // THEN
+        assertEquals(listOf("A", "B"), actual.map { it.name })
+    }
+
+    @Test
+    fun `should decode a single entity`() {
+        // GIVEN
+        stubGet("/index.php?/api/v2/get_section/3", """{"id":3,"name":"C","suite_id":1,"depth":0}""")
+
+        // WHEN
+        val actual = testRail.sections().get(3).execute()
+
+        // THEN
+        assertEquals(3, actual.id)
+        assertEquals("C", actual.name)
+    }
+
+    @Test
+    fun `should decode the error of a failed request`() {
+        // GIVEN
+        wireMockServer.stubFor(
+            get(urlEqualTo("/index.php?/api/v2/get_section/4")).willReturn(
+                aResponse().withStatus(400).withHeader("Content-Type", "application/json")
+                    .withBody("""{"error":"Field :section_id is not a valid section."}""")
+            )
+        )
+
+        // WHEN
+        val exception = assertThrows<TestRailException> { testRail.sections().get(4).execute() }
+
+        // THEN
+        assertEquals(400, exception.responseCode)
+        assertEquals("400 - Field :section_id is not a valid section.", exception.message)
+    }
+
+    private fun stubGet(url: String, body: String) {
+        wireMockServer.stubFor(
+            get(urlEqualTo(url)).willReturn(
+                aResponse().withStatus(200).withHeader("Content-Type", "application/json").withBody(body)
+            )
+        )
+    }
+
+    companion object {
+        private const val GET_SECTIONS = "/index.php?/api/v2/get_sections/1&suite_id="
+        lateinit var wireMockServer: WireMockServer
+        lateinit var testRail: TestRail
+
+        @BeforeAll
+        @JvmStatic
+        fun setUp() {
+            wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+            wireMockServer.start()
+            testRail = TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password").build()
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDown() {
+            wireMockServer.stop()
+        }
+    }
+}
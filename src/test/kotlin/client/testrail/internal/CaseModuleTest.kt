@@ -0,0 +1,88 @@
+package client.testrail.internal
+
+import client.testrail.model.Case
+import client.testrail.model.CaseField
+import client.testrail.model.CaseFieldSchema
+import client.testrail.model.Field
+import com.fasterxml.jackson.core.type.TypeReference
+import com.fasterxml.jackson.databind.InjectableValues
+import com.fasterxml.jackson.databind.JsonMappingException
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+internal class CaseModuleTest {
+
+    private val objectMapper = ObjectMapperFactory.getObjectMapper()
+    private val caseFieldSchema = CaseFieldSchema.of(
+        objectMapper.readValue(
+            """
+            [
+              {"id":1,"type_id":1,"name":"summary","system_name":"custom_summary","configs":[]},
+              {"id":2,"type_id":2,"name":"estimate_points","system_name":"custom_estimate_points","configs":[]},
+              {"id":3,"type_id":5,"name":"automated","system_name":"custom_automated","configs":[]},
+              {"id":4,"type_id":10,"name":"steps_separated","system_name":"custom_steps_separated","configs":[]},
+              {"id":5,"type_id":11,"name":"platforms","system_name":"custom_platforms","configs":[]}
+            ]
+            """,
+            object : TypeReference<List<CaseField>>() {}
+        )
+    )
+
+    @Test
+    fun `should decode custom fields to the types of their case fields`() {
+        // GIVEN
+        val json = """
+            {
+              "id":1,"title":"Login","custom_summary":"Logs in","custom_estimate_points":3,"custom_automated":true,
+              "custom_steps_separated":[{"content":"Open the app","expected":"The login form is shown"}],
+              "custom_platforms":["iOS","Android"]
+            }
+            """
+
+        // WHEN
+        val actual = read(json)
+
+        // THEN
+        assertEquals("Logs in", actual.getCustomField("summary"))
+        assertEquals(3, actual.getCustomField("estimate_points"))
+        assertEquals(true, actual.getCustomField("automated"))
+        val steps = actual.getCustomField<List<Field.Step>>("steps_separated")
+        assertEquals(Field.Step::class.java, steps[0].javaClass)
+        assertEquals("The login form is shown", steps[0].expected)
+        assertEquals(listOf("iOS", "Android"), actual.getCustomField("platforms"))
+    }
+
+    @Test
+    fun `should keep null custom fields and drop unknown standard fields`() {
+        // GIVEN
+        val json = """{"id":1,"custom_summary":null,"display_order":{"nested":[1,2]},"title":"Login"}"""
+
+        // WHEN
+        val actual = read(json)
+
+        // THEN
+        assertEquals("Login", actual.title)
+        assertTrue(actual.customFields.containsKey("summary"))
+        assertNull(actual.getCustomField<String>("summary"))
+        assertEquals(setOf("summary"), actual.customFields.keys)
+    }
+
+    @Test
+    fun `should reject a custom field missing from the schema`() {
+        // GIVEN
+        val json = """{"id":1,"custom_unknown":"value"}"""
+
+        // WHEN
+        val exception = assertThrows<JsonMappingException> { read(json) }
+
+        // THEN
+        assertTrue(exception.message!!.contains("does not contain custom field: unknown"))
+    }
+
+    private fun read(json: String): Case = objectMapper.readerFor(Case::class.java)
+        .with(InjectableValues.Std().addValue(Case::class.java.toString(), caseFieldSchema))
+        .readValue(json)
+}
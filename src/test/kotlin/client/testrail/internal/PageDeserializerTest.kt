@@ -0,0 +1,95 @@
+package client.testrail.internal
+
+import client.testrail.model.Page
+import client.testrail.model.Section
+import client.testrail.model.Suite
+import com.fasterxml.jackson.core.type.TypeReference
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+internal class PageDeserializerTest {
+
+    private val objectMapper = ObjectMapperFactory.getObjectMapper()
+
+    @Test
+    fun `should read the paging fields and the entities of a page`() {
+        // GIVEN
+        val json = page("sections", 250, 2, """{"id":1,"name":"A"},{"id":2,"name":"B"}""", next = true)
+
+        // WHEN
+        val page = objectMapper.readValue(json, SECTION_PAGE)
+
+        // THEN
+        assertEquals(250, page.offset)
+        assertEquals(250, page.limit)
+        assertEquals(2, page.size)
+        assertEquals("/api/v2/get_sections/1&limit=250&offset=500", page.links.next)
+        assertEquals(listOf(1, 2), page.objects.map { it.id })
+        assertEquals(Section::class.java, page.objects[0].javaClass)
+    }
+
+    @Test
+    fun `should read the last page without a next link`() {
+        // GIVEN
+        val json = page("sections", 0, 0, "", next = false)
+
+        // WHEN
+        val page = objectMapper.readValue(json, SECTION_PAGE)
+
+        // THEN
+        assertNull(page.links.next)
+        assertEquals(listOf(), page.objects)
+    }
+
+    @Test
+    fun `should read pages of different entities concurrently with the shared mapper`() {
+        // GIVEN
+        val sections = page("sections", 0, 2, """{"id":1,"name":"A"},{"id":2,"name":"B"}""", next = false)
+        val suites = page("suites", 0, 3, """{"id":3,"name":"C"},{"id":4,"name":"D"},{"id":5,"name":"E"}""", next = false)
+        val executor = Executors.newFixedThreadPool(8)
+
+        // WHEN
+        val results = try {
+            executor.invokeAll((0 until 400).map { index ->
+                Callable {
+                    if (index % 2 == 0) {
+                        objectMapper.readValue(sections, SECTION_PAGE).objects.map { it.javaClass to it.id }
+                    } else {
+                        objectMapper.readValue(suites, SUITE_PAGE).objects.map { it.javaClass to it.id }
+                    }
+                }
+            }).map { it.get() }
+        } finally {
+            executor.shutdown()
+        }
+
+        // THEN
+        results.forEachIndexed { index, entities ->
+            val expected = if (index % 2 == 0) {
+                listOf(Section::class.java to 1, Section::class.java to 2)
+            } else {
+                listOf(Suite::class.java to 3, Suite::class.java to 4, Suite::class.java to 5)
+            }
+            assertEquals(expected, entities)
+        }
+    }
+
+    private fun page(name: String, offset: Int, size: Int, entities: String, next: Boolean): String {
+        val nextLink = if (next) "\"/api/v2/get_$name/1&limit=250&offset=${offset + 250}\"" else "null"
+        return """
+            {
+              "offset":$offset,"limit":250,"size":$size,
+              "_links":{"next":$nextLink,"prev":null},
+              "$name":[$entities]
+            }
+            """
+    }
+
+    companion object {
+        private val SECTION_PAGE = object : TypeReference<Page<List<Section>>>() {}
+        private val SUITE_PAGE = object : TypeReference<Page<List<Suite>>>() {}
+    }
+}
@@ -0,0 +1,71 @@
+package client.testrail.internal
+
+import client.testrail.TestRail
+import client.testrail.model.CaseFieldSchema
+import org.junit.jupiter.api.Test
+import java.util.Date
+import kotlin.test.assertEquals
+
+internal class QueryParameterEncoderTest {
+
+    private val testRail = TestRail.builder("http://localhost", "user", "password").build()
+    private val caseFieldSchema = CaseFieldSchema.of(listOf())
+
+    @Test
+    fun `should encode the filters which are set the way TestRail expects them`() {
+        // GIVEN
+        val request = testRail.cases().list(1, 2, caseFieldSchema)
+            .withSectionId(3)
+            .withCreatedAfter(Date(1_700_000_000_000))
+            .withTypeId(listOf(4, 5))
+            .withLimit(10)
+
+        // WHEN
+        val actual = encode(request)
+
+        // THEN
+        assertEquals("section_id=3&created_after=1700000000&type_id=4%2C5&limit=10", actual)
+    }
+
+    @Test
+    fun `should encode booleans as numbers`() {
+        // GIVEN
+        val completed = testRail.projects().list().withIsCompleted(true)
+        val active = testRail.projects().list().withIsCompleted(false)
+
+        // WHEN THEN
+        assertEquals("is_completed=1", encode(completed))
+        assertEquals("is_completed=0", encode(active))
+    }
+
+    @Test
+    fun `should encode nothing when no filter is set`() {
+        // GIVEN
+        val request = testRail.cases().list(1, 2, caseFieldSchema)
+
+        // WHEN
+        val actual = encode(request)
+
+        // THEN
+        assertEquals("", actual)
+    }
+
+    @Test
+    fun `should leave out the excluded parameters`() {
+        // GIVEN
+        val request = testRail.cases().list(1, 2, caseFieldSchema).withSectionId(3).withLimit(10).withOffset(20)
+
+        // WHEN
+        val queryParameters = QueryParameterString()
+        QueryParameterEncoder.forClass(request.javaClass).encode(request, queryParameters, setOf("limit", "offset"))
+
+        // THEN
+        assertEquals("section_id=3", queryParameters.toString())
+    }
+
+    private fun encode(request: Any): String {
+        val queryParameters = QueryParameterString()
+        QueryParameterEncoder.forClass(request.javaClass).encode(request, queryParameters)
+        return queryParameters.toString()
+    }
+}
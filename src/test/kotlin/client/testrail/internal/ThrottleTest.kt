@@ -0,0 +1,92 @@
+package client.testrail.internal
+
+import org.junit.jupiter.api.Test
+import java.time.Duration
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
+import java.util.Optional
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+internal class ThrottleTest {
+
+    @Test
+    fun `should halve the concurrency limit once per burst of overload`() {
+        // GIVEN
+        val throttle = Throttle(8, true, null, 0, Duration.ZERO, Duration.ZERO)
+        val generations = (1..3).map { throttle.acquire() }
+
+        // WHEN
+        generations.forEach { throttle.onOverload(it, Optional.empty()) }
+        repeat(generations.size) { throttle.release() }
+
+        // THEN
+        assertEquals(4, throttle.concurrencyLimit)
+    }
+
+    @Test
+    fun `should raise the concurrency limit by one after a full limit of successes`() {
+        // GIVEN
+        val throttle = Throttle(8, true, null, 0, Duration.ZERO, Duration.ZERO)
+        throttle.onOverload(throttle.acquire(), Optional.empty())
+        throttle.release()
+
+        // WHEN
+        repeat(4) { throttle.onSuccess() }
+
+        // THEN
+        assertEquals(5, throttle.concurrencyLimit)
+    }
+
+    @Test
+    fun `should keep the concurrency limit when not adaptive`() {
+        // GIVEN
+        val throttle = Throttle(8, false, null, 0, Duration.ZERO, Duration.ZERO)
+
+        // WHEN
+        throttle.onOverload(throttle.acquire(), Optional.empty())
+        throttle.release()
+
+        // THEN
+        assertEquals(8, throttle.concurrencyLimit)
+    }
+
+    @Test
+    fun `should allow retries up to the maximum`() {
+        // GIVEN
+        val throttle = Throttle(1, false, null, 2, Duration.ofMillis(100), Duration.ofMillis(150))
+
+        // WHEN THEN
+        assertEquals(listOf(true, true, false), (0..2).map { throttle.canRetry(it) })
+        repeat(10) { assertTrue(throttle.getBackoff(5) <= Duration.ofMillis(150)) }
+    }
+
+    @Test
+    fun `should parse retry after as seconds or as a date`() {
+        // GIVEN
+        val date = ZonedDateTime.now().plusSeconds(30).format(DateTimeFormatter.RFC_1123_DATE_TIME)
+
+        // WHEN
+        val seconds = Throttle.parseRetryAfter(" 120 ")
+        val untilDate = Throttle.parseRetryAfter(date)
+        val invalid = Throttle.parseRetryAfter("soon")
+
+        // THEN
+        assertEquals(Optional.of(Duration.ofSeconds(120)), seconds)
+        assertTrue(untilDate.get() > Duration.ofSeconds(25) && untilDate.get() <= Duration.ofSeconds(30))
+        assertEquals(Optional.empty(), invalid)
+    }
+
+    @Test
+    fun `should limit the rate of tokens after the initial burst`() {
+        // GIVEN
+        val tokenBucket = TokenBucket(20.0, 2)
+        val start = System.nanoTime()
+
+        // WHEN
+        repeat(4) { tokenBucket.acquire() }
+
+        // THEN
+        assertTrue(Duration.ofNanos(System.nanoTime() - start) >= Duration.ofMillis(90))
+    }
+}
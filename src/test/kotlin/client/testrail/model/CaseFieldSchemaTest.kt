@@ -0,0 +1,94 @@
+package client.testrail.model
+
+import client.testrail.TestRail
+import com.github.tomakehurst.wiremock.WireMockServer
+import com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import com.github.tomakehurst.wiremock.client.WireMock.get
+import com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import kotlin.test.assertEquals
+import kotlin.test.assertSame
+
+internal class CaseFieldSchemaTest {
+
+    @Test
+    fun `should decode a lazy custom field to the same value as an eager one`() {
+        // GIVEN
+        val caseFieldSchema = CaseFieldSchema.of(testRail.caseFields().list().execute())
+
+        // WHEN
+        val eager = testRail.cases().get(1, caseFieldSchema).execute()
+        val lazy = testRail.cases().get(1, caseFieldSchema.lazy()).execute()
+
+        // THEN
+        assertEquals(eager.getCustomField<Any>("steps_separated"), lazy.getCustomField<Any>("steps_separated"))
+        assertEquals(eager.getCustomField<Any>("preconds"), lazy.getCustomField<Any>("preconds"))
+        assertEquals(eager, lazy)
+    }
+
+    @Test
+    fun `should decode a lazy custom field only once`() {
+        // GIVEN
+        val caseFieldSchema = CaseFieldSchema.of(testRail.caseFields().list().execute()).lazy()
+        val testCase = testRail.cases().get(1, caseFieldSchema).execute()
+
+        // WHEN
+        val first = testCase.getCustomField<List<Field.Step>>("steps_separated")
+        val second = testCase.getCustomField<List<Field.Step>>("steps_separated")
+
+        // THEN
+        assertEquals(listOf("Open the app", "Log in"), first.map { it.content })
+        assertSame(first, second)
+        assertSame(first, testCase.customFields["steps_separated"])
+    }
+
+    companion object {
+        lateinit var wireMockServer: WireMockServer
+        lateinit var testRail: TestRail
+
+        @BeforeAll
+        @JvmStatic
+        fun setUp() {
+            wireMockServer = WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort())
+            wireMockServer.start()
+            wireMockServer.stubFor(
+                get(urlEqualTo("/index.php?/api/v2/get_case_fields")).willReturn(
+                    aResponse().withStatus(200).withHeader("Content-Type", "application/json").withBody(
+                        """
+                        [
+                          {"id":1,"type_id":3,"name":"preconds","system_name":"custom_preconds","label":"Preconditions","configs":[]},
+                          {"id":2,"type_id":10,"name":"steps_separated","system_name":"custom_steps_separated","label":"Steps","configs":[]}
+                        ]
+                        """
+                    )
+                )
+            )
+            wireMockServer.stubFor(
+                get(urlEqualTo("/index.php?/api/v2/get_case/1")).willReturn(
+                    aResponse().withStatus(200).withHeader("Content-Type", "application/json").withBody(
+                        """
+                        {
+                          "id":1,"title":"Login","section_id":2,"template_id":2,"suite_id":3,
+                          "custom_preconds":"A user exists",
+                          "custom_steps_separated":[
+                            {"content":"Open the app","expected":"The login form is shown"},
+                            {"content":"Log in","expected":"The home screen is shown"}
+                          ]
+                        }
+                        """
+                    )
+                )
+            )
+            testRail = TestRail.builder("http://localhost:${wireMockServer.port()}", "user", "password").build()
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDown() {
+            wireMockServer.stop()
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package client.testrail.model
+
+import org.junit.jupiter.api.Test
+import java.util.Date
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+internal class CaseTableTest {
+
+    @Test
+    fun `should create the same test case from a row as the one added`() {
+        // GIVEN
+        val testCases = (1..300).map { id ->
+            Case()
+                .setId(id)
+                .setTitle("Case ${id % 7}")
+                .setSectionId(10)
+                .setSuiteId(20)
+                .setTemplateId(1)
+                .setTypeId(3)
+                .setPriorityId(if (id % 2 == 0) 4 else null)
+                .setRefs("REF-$id")
+                .setCreatedBy(5)
+                .setCreatedOn(Date(1_700_000_000_000L + id))
+                .setUpdatedBy(6)
+                .setUpdatedOn(Date(1_700_000_100_000L + id))
+                .setEstimate("1m")
+                .addCustomField("custom_automated", id % 3 == 0)
+                .addCustomField("steps", listOf("Step $id"))
+        }
+
+        // WHEN
+        val table = testCases.fold(CaseTable.builder()) { builder, testCase -> builder.add(testCase) }.build()
+
+        // THEN
+        assertEquals(testCases.size, table.size())
+        testCases.forEachIndexed { row, testCase -> assertEquals(testCase, table.getCase(row)) }
+    }
+
+    @Test
+    fun `should keep unset fields unset`() {
+        // GIVEN
+        val testCase = Case().setId(1).setSectionId(2)
+
+        // WHEN
+        val actual = CaseTable.builder().add(testCase).build().getCase(0)
+
+        // THEN
+        assertEquals(testCase, actual)
+        assertEquals(2, actual.templateId)
+        assertNull(actual.typeId)
+        assertNull(actual.updatedOn)
+        assertNull(actual.title)
+    }
+}
@@ -0,0 +1,130 @@
+package client.testrail.sync
+
+import client.testrail.TestRail
+import client.testrail.model.Case
+import client.testrail.model.CaseFieldSchema
+import client.testrail.simulator.TestRailSimulator
+import client.testrail.transport.Transport
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import java.time.Duration
+import java.util.Collections
+import java.util.Date
+import kotlin.test.assertEquals
+import kotlin.test.assertNotNull
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
+
+internal class CaseSyncTest {
+
+    private val simulator = TestRailSimulator.start()
+    private val requestedUrls: MutableList<String> = Collections.synchronizedList(mutableListOf())
+    private val store = InMemoryCaseStore()
+    private lateinit var testRail: TestRail
+    private lateinit var caseFieldSchema: CaseFieldSchema
+    private var suiteId: Int = 0
+    private var sectionId: Int = 0
+    private val caseIds = mutableListOf<Int>()
+
+    @BeforeEach
+    fun setUp() {
+        suiteId = simulator.addSuite(PROJECT_ID, "Master")
+        sectionId = simulator.addSection(suiteId, null, "section")
+        (1..CASE_COUNT).forEach { caseIds.add(simulator.addCase(sectionId, "Case $it")) }
+        val transport = Transport.httpClient(TIMEOUT, TIMEOUT)
+        testRail = TestRail.builder(simulator.endPoint, "user", "password")
+            .transport { request -> requestedUrls.add(request.url); transport.send(request) }
+            .build()
+        caseFieldSchema = CaseFieldSchema.of(testRail.caseFields().list().execute())
+    }
+
+    @AfterEach
+    fun tearDown() {
+        simulator.close()
+    }
+
+    @Test
+    fun `should list the whole suite on the first sync`() {
+        // GIVEN
+        val sync = caseSync()
+
+        // WHEN
+        val fetched = sync.sync()
+
+        // THEN
+        assertEquals(CASE_COUNT, fetched)
+        assertEquals(caseIds, store.getCases(suiteId).map { it.id })
+        val state = assertNotNull(store.getState(suiteId))
+        assertNotNull(state.lastFullScan)
+        assertTrue(!state.watermark.after(Date()))
+        assertTrue(casesRequests().none { it.contains("updated_after") })
+    }
+
+    @Test
+    fun `should fetch only the cases updated since the last sync and merge them`() {
+        // GIVEN
+        // timestamps have a resolution of seconds and the sync overlaps the watermark by one, so the cases of the
+        // watermark are fetched again, but not the ones before
+        Thread.sleep(PAST_WATERMARK_OVERLAP_MILLIS)
+        val latestId = simulator.addCase(sectionId, "Latest")
+        val sync = caseSync()
+        sync.sync()
+        Thread.sleep(PAST_WATERMARK_OVERLAP_MILLIS)
+        testRail.cases().update(Case().setId(caseIds[1]).setTitle("Renamed"), caseFieldSchema).execute()
+        requestedUrls.clear()
+
+        // WHEN
+        val fetched = sync.sync()
+
+        // THEN
+        assertEquals(2, fetched)
+        assertTrue(casesRequests().single().contains("&updated_after="))
+        assertEquals(caseIds + latestId, store.getCases(suiteId).map { it.id })
+        assertEquals("Renamed", store.getCase(suiteId, caseIds[1]).title)
+    }
+
+    @Test
+    fun `should drop deleted cases on the next full scan`() {
+        // GIVEN
+        val fullScanInterval = Duration.ofSeconds(1)
+        val sync = caseSync().fullScanInterval(fullScanInterval)
+        sync.sync()
+        testRail.cases().delete(caseIds[0]).execute()
+
+        // WHEN
+        sync.sync()
+        val afterDeltaSync = store.getCase(suiteId, caseIds[0])
+        Thread.sleep(fullScanInterval.toMillis() + 100)
+        sync.sync()
+
+        // THEN
+        assertNotNull(afterDeltaSync)
+        assertNull(store.getCase(suiteId, caseIds[0]))
+        assertEquals(caseIds.drop(1), store.getCases(suiteId).map { it.id })
+    }
+
+    @Test
+    fun `should do a full scan when the time of the last one is not known`() {
+        // GIVEN
+        store.replace(suiteId, listOf(), SyncState(Date(), null))
+
+        // WHEN
+        val fetched = caseSync().sync()
+
+        // THEN
+        assertEquals(CASE_COUNT, fetched)
+        assertNotNull(store.getState(suiteId)?.lastFullScan)
+    }
+
+    private fun caseSync() = CaseSync(testRail, PROJECT_ID, suiteId, caseFieldSchema, store)
+
+    private fun casesRequests() = requestedUrls.filter { it.contains("get_cases") }
+
+    companion object {
+        private const val PROJECT_ID: Int = 1
+        private const val CASE_COUNT: Int = 3
+        private const val PAST_WATERMARK_OVERLAP_MILLIS: Long = 2100
+        private val TIMEOUT = Duration.ofSeconds(10)
+    }
+}
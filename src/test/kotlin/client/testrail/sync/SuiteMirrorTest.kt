@@ -0,0 +1,99 @@
+package client.testrail.sync
+
+import client.testrail.TestRail
+import client.testrail.model.Case
+import client.testrail.model.CaseFieldSchema
+import client.testrail.simulator.TestRailSimulator
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.RandomAccessFile
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Date
+import kotlin.test.assertEquals
+
+internal class SuiteMirrorTest {
+
+    @TempDir
+    private lateinit var directory: Path
+
+    @Test
+    fun `should load the refreshed suite from its file`() {
+        // GIVEN
+        val file = directory.resolve("suite.bin")
+        val mirror = SuiteMirror.open(file, PROJECT_ID, suiteId, caseFieldSchema)
+        mirror.refresh(testRail)
+
+        // WHEN
+        val reloaded = SuiteMirror.open(file, PROJECT_ID, suiteId, caseFieldSchema)
+
+        // THEN
+        assertEquals(mirror.cases, reloaded.cases)
+        assertEquals(mirror.sections, reloaded.sections)
+        assertEquals(mirror.getState(suiteId), reloaded.getState(suiteId))
+        assertEquals(CASE_COUNT, reloaded.cases.size)
+    }
+
+    @Test
+    fun `should not append sections which did not change`() {
+        // GIVEN
+        val file = directory.resolve("suite.bin")
+        val mirror = SuiteMirror.open(file, PROJECT_ID, suiteId, caseFieldSchema)
+        mirror.refresh(testRail)
+        val size = Files.size(file)
+
+        // WHEN
+        mirror.replaceSections(testRail.sections().list(PROJECT_ID, suiteId).execute())
+
+        // THEN
+        assertEquals(size, Files.size(file))
+    }
+
+    @Test
+    fun `should drop a partly written change on load`() {
+        // GIVEN
+        val file = directory.resolve("suite.bin")
+        val mirror = SuiteMirror.open(file, PROJECT_ID, suiteId, caseFieldSchema)
+        mirror.refresh(testRail)
+        val state = mirror.getState(suiteId)
+        val testCase = mirror.cases.first()
+        mirror.update(suiteId, listOf(Case().setId(testCase.id).setTitle("Renamed")), SyncState(Date(), null))
+        RandomAccessFile(file.toFile(), "rw").use { it.setLength(it.length() - 1) }
+
+        // WHEN
+        val reloaded = SuiteMirror.open(file, PROJECT_ID, suiteId, caseFieldSchema)
+
+        // THEN
+        assertEquals(testCase, reloaded.getCase(testCase.id))
+        assertEquals(state, reloaded.getState(suiteId))
+    }
+
+    companion object {
+        private const val PROJECT_ID: Int = 1
+        private const val CASE_COUNT: Int = 5
+        lateinit var simulator: TestRailSimulator
+        lateinit var testRail: TestRail
+        lateinit var caseFieldSchema: CaseFieldSchema
+        private var suiteId: Int = 0
+
+        @BeforeAll
+        @JvmStatic
+        fun setUp() {
+            simulator = TestRailSimulator.start()
+            suiteId = simulator.addSuite(PROJECT_ID, "Master")
+            val parentId = simulator.addSection(suiteId, null, "parent")
+            val childId = simulator.addSection(suiteId, parentId, "child")
+            (1..CASE_COUNT).forEach { simulator.addCase(if (it % 2 == 0) parentId else childId, "Case $it") }
+            testRail = TestRail.builder(simulator.endPoint, "user", "password").build()
+            caseFieldSchema = CaseFieldSchema.of(testRail.caseFields().list().execute())
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDown() {
+            simulator.close()
+        }
+    }
+}
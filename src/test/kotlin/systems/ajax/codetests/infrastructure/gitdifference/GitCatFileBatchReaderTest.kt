@@ -0,0 +1,68 @@
+package systems.ajax.codetests.infrastructure.gitdifference
+
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.infrastructure.testrail.repository.ExtractionUtils
+import java.io.File
+import kotlin.test.assertEquals
+import kotlin.test.assertNull
+
+internal class GitCatFileBatchReaderTest {
+
+    @TempDir
+    private lateinit var repository: File
+
+    private lateinit var reader: GitCatFileBatchReader
+
+    @BeforeEach
+    fun setUp() {
+        git("init", "-q")
+        File(repository, "resources/dir with space").mkdirs()
+        File(repository, "resources/dir with space/_Meta.json").writeText("{\"id\":12,\"description\":\"x\"}")
+        File(repository, "resources/case.feature").writeText("@id:34 @type:regression\nFeature: Case\n")
+        File(repository, "resources/no-id.feature").writeText("Feature: No id\n" + "Scenario: step\n".repeat(1000))
+        git("add", ".")
+        git("-c", "user.name=test", "-c", "user.email=test@example.com", "commit", "-q", "-m", "files")
+        File(repository, "resources/case.feature").delete()
+        reader = GitCatFileBatchReader(repository)
+    }
+
+    @AfterEach
+    fun tearDown() {
+        reader.close()
+    }
+
+    @Test
+    fun `should extract ids of committed files over one process`() {
+        // WHEN
+        val sectionId = ExtractionUtils.extractIdFromDeletedFile(FilePath("resources/dir with space/_Meta.json"), reader)
+        val noId = ExtractionUtils.extractIdFromDeletedFile(FilePath("resources/no-id.feature"), reader)
+        val caseId = ExtractionUtils.extractIdFromDeletedFile(FilePath("resources/case.feature"), reader)
+
+        // THEN
+        assertEquals(12, sectionId)
+        assertNull(noId)
+        assertEquals(34, caseId)
+    }
+
+    @Test
+    fun `should return null for files which are not committed`() {
+        // WHEN
+        val missing = reader.readCommittedFile(FilePath("resources/missing.feature")) { it.readBytes() }
+        val directory = reader.readCommittedFile(FilePath("resources")) { it.readBytes() }
+        val content = reader.readCommittedFile(FilePath("resources/case.feature")) { it.readBytes().decodeToString() }
+
+        // THEN
+        assertNull(missing)
+        assertNull(directory)
+        assertEquals("@id:34 @type:regression\nFeature: Case\n", content)
+    }
+
+    private fun git(vararg arguments: String) {
+        val process = ProcessBuilder("git", *arguments).directory(repository).inheritIO().start()
+        check(process.waitFor() == 0) { "git ${arguments.joinToString(" ")} failed" }
+    }
+}
@@ -1,7 +1,6 @@
 package systems.ajax.codetests.infrastructure.gitdifference
 
-import io.mockk.every
-import io.mockk.spyk
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
@@ -18,17 +17,38 @@ internal class GitDifferenceTest {
     @MethodSource("arguments for should test getDiff parses git diff output")
     fun `test getDiff parses git diff output`(input: String, expectedResult: Pair<TypeAction, FilePath>) {
         // GIVEN
-        val gitDifference = spyk(GitDifference())
-        every { gitDifference["executeGitDiffCommand"]() } returns input
-        val expected: Map<TypeAction, List<FilePath>> = listOf(
-            expectedResult
-        ).groupBy({ it.first }, { it.second })
+        val gitDifference = GitDifference()
 
         // WHEN
-        val result: Map<TypeAction, List<FilePath>> = gitDifference.getDifference()
+        val result: List<Pair<TypeAction, FilePath>> = gitDifference.parse(input.byteInputStream()).toList()
 
         // THEN
-        assertEquals(expected, result)
+        assertEquals(listOf(expectedResult), result)
+    }
+
+    @Test
+    fun `should parse records with spaces in paths as git writes them`() {
+        // GIVEN
+        val input = "M\u0000us-subdomain/resources/with space/Case one.feature\u0000" +
+            "R100\u0000us-subdomain/resources/old dir/_Meta.json\u0000us-subdomain/resources/new dir/_Meta.json\u0000" +
+            "M\u0000us-subdomain/src/main/kotlin/Ignored.kt\u0000" +
+            "D\u0000us-subdomain/resources/removed.feature\u0000"
+        val consumed = mutableListOf<Pair<TypeAction, FilePath>>()
+
+        // WHEN
+        val result = GitDifference().parse(input.byteInputStream()).onEach { consumed.add(it) }.take(2).toList()
+
+        // THEN
+        assertEquals(
+            listOf(
+                TypeAction(Type.CASE, Action.MODIFIED)
+                    to FilePath("us-subdomain/resources/with space/Case one.feature"),
+                TypeAction(Type.SECTION, Action.MOVED_OR_UPDATED)
+                    to FilePath("us-subdomain/resources/new dir/_Meta.json"),
+            ),
+            result,
+        )
+        assertEquals(result, consumed)
     }
 
     @Suppress("LongMethod")
@@ -38,72 +58,72 @@ internal class GitDifferenceTest {
         fun `arguments for should test getDiff parses git diff output`(): Stream<Arguments> {
             return Stream.of(
                 Arguments.of(
-                    "R100    us-subdomain/resources/folder/util/LogginExtention.section   " +
-                        "   us-subdomain/resources/folder/util2/LogginExtention.section",
+                    "R100\u0000us-subdomain/resources/folder/util/LogginExtention/_Meta.json\u0000" +
+                        "us-subdomain/resources/folder/util2/LogginExtention/_Meta.json\u0000",
                     TypeAction(Type.SECTION, Action.MOVED_OR_UPDATED)
                         to
-                        FilePath("us-subdomain/resources/folder/util2/LogginExtention.section")
+                        FilePath("us-subdomain/resources/folder/util2/LogginExtention/_Meta.json")
                 ),
                 Arguments.of(
-                    "R045    us-subdomain/resources/LogginExtention.section      " +
-                        "us-subdomain/resources/util/LogginExtention.section",
+                    "R045\u0000us-subdomain/resources/LogginExtention/_Meta.json\u0000" +
+                        "us-subdomain/resources/util/LogginExtention/_Meta.json\u0000",
                     TypeAction(Type.SECTION, Action.MOVED_OR_UPDATED)
                         to
-                        FilePath("us-subdomain/resources/util/LogginExtention.section")
+                        FilePath("us-subdomain/resources/util/LogginExtention/_Meta.json")
                 ),
                 Arguments.of(
-                    "A       us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.section",
+                    "A\u0000us-subdomain/resources/sms/src/main/kotlin/sms/listener/_Meta.json\u0000",
                     TypeAction(Type.SECTION, Action.ADDED)
                         to
-                        FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.section")
+                        FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/_Meta.json")
                 ),
                 Arguments.of(
-                    "D       us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.section",
+                    "D\u0000us-subdomain/resources/sms/src/main/kotlin/sms/listener/_Meta.json\u0000",
                     TypeAction(Type.SECTION, Action.REMOVED)
                         to
-                        FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.section")
+                        FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/_Meta.json")
                 ),
                 Arguments.of(
-                    "M      us-subdomain/resources/sms/src/test/kotlin/LoggingEventListenerTest.section",
+                    "M\u0000us-subdomain/resources/sms/src/test/kotlin/_Meta.json\u0000",
                     TypeAction(Type.SECTION, Action.MODIFIED)
                         to
-                        FilePath("us-subdomain/resources/sms/src/test/kotlin/LoggingEventListenerTest.section")
+                        FilePath("us-subdomain/resources/sms/src/test/kotlin/_Meta.json")
                 ),
                 Arguments.of(
-                    "R100    us-subdomain/resources/folder/util/LogginExtention.feature   " +
-                        "   us-subdomain/resources/folder/util2/LogginExtention.feature",
+                    "R100\u0000us-subdomain/resources/folder/util/LogginExtention.feature\u0000" +
+                        "us-subdomain/resources/folder/util2/LogginExtention.feature\u0000",
                     TypeAction(Type.CASE, Action.MOVED_OR_UPDATED)
                         to
                         FilePath("us-subdomain/resources/folder/util2/LogginExtention.feature")
                 ),
                 Arguments.of(
-                    "R100    us-subdomain/resources/LogginExtentionN.feature      " +
-                        "us-subdomain/resources/LogginExtentionN.feature",
+                    "R100\u0000us-subdomain/resources/LogginExtentionN.feature\u0000" +
+                        "us-subdomain/resources/LogginExtentionN.feature\u0000",
                     TypeAction(Type.CASE, Action.MOVED_OR_UPDATED)
                         to
                         FilePath("us-subdomain/resources/LogginExtentionN.feature")
                 ),
                 Arguments.of(
-                    "R045    us-subdomain/resources/LogginExtention.feature    " +
-                        "  us-subdomain/resources/util/LogginExtention.feature",
+                    "R045\u0000us-subdomain/resources/LogginExtention.feature\u0000" +
+                        "us-subdomain/resources/util/LogginExtention.feature\u0000",
                     TypeAction(Type.CASE, Action.MOVED_OR_UPDATED)
                         to
                         FilePath("us-subdomain/resources/util/LogginExtention.feature")
                 ),
                 Arguments.of(
-                    "A       us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature",
+                    "A\u0000us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature\u0000",
                     TypeAction(Type.CASE, Action.ADDED)
                         to
                         FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature")
                 ),
                 Arguments.of(
-                    "D       us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature",
+                    "D\u0000us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature\u0000",
                     TypeAction(Type.CASE, Action.REMOVED)
                         to
                         FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature")
                 ),
                 Arguments.of(
-                    "M       us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature",
+                    "M\u0000us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature\u0000",
                     TypeAction(Type.CASE, Action.MODIFIED)
                         to
                         FilePath("us-subdomain/resources/sms/src/main/kotlin/sms/listener/LoggingEventListener.feature")
@@ -0,0 +1,131 @@
+package systems.ajax.codetests.infrastructure.testrail
+
+import io.mockk.every
+import io.mockk.justRun
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.application.model.diff.Action
+import systems.ajax.codetests.application.model.diff.Type
+import systems.ajax.codetests.application.model.diff.TypeAction
+import systems.ajax.codetests.application.port.input.ApplyDiffCaseInPort
+import systems.ajax.codetests.application.port.input.ApplyDiffSectionInPort
+import systems.ajax.codetests.application.port.input.FileDifferenceInPort
+import systems.ajax.codetests.infrastructure.testrail.config.TestrailProperties
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+internal class DifferencePublisherTest {
+
+    private val fileDifferenceInPort: FileDifferenceInPort = mockk()
+    private val applyDiffSectionInPort: ApplyDiffSectionInPort = mockk()
+    private val applyDiffCaseInPort: ApplyDiffCaseInPort = mockk()
+    private val applied: MutableList<String> = Collections.synchronizedList(mutableListOf())
+
+    init {
+        justRun { applyDiffCaseInPort.prepare(any()) }
+        justRun { applyDiffCaseInPort.release() }
+    }
+
+    private val publisher = DifferencePublisher(
+        fileDifferenceInPort,
+        applyDiffSectionInPort,
+        applyDiffCaseInPort,
+        TestrailProperties(BASE_URL, LOGIN, TOKEN, publisher = TestrailProperties.Publisher(parallelism = 4)),
+    )
+
+    @Test
+    fun `should apply sections before their child sections and cases`() {
+        // GIVEN
+        every { fileDifferenceInPort.getDifference() } returns mapOf(
+            TypeAction(Type.CASE, Action.ADDED) to listOf(FilePath("resources/a/b/case.feature")),
+            TypeAction(Type.SECTION, Action.ADDED) to listOf(
+                FilePath("resources/a/b/_Meta.json"),
+                FilePath("resources/a/_Meta.json"),
+            ),
+        )
+        every { applyDiffSectionInPort.execute(any(), any()) } answers { applied.add(firstArg<FilePath>().path) }
+        every { applyDiffCaseInPort.execute(any(), any()) } answers { applied.add(firstArg<FilePath>().path) }
+
+        // WHEN
+        publisher.publish()
+
+        // THEN
+        assertEquals(
+            listOf("resources/a/_Meta.json", "resources/a/b/_Meta.json", "resources/a/b/case.feature"),
+            applied,
+        )
+        verify(exactly = 1) { applyDiffCaseInPort.prepare(listOf(FilePath("resources/a/b/case.feature"))) }
+        verify(exactly = 1) { applyDiffCaseInPort.release() }
+    }
+
+    @Test
+    fun `should apply independent operations concurrently`() {
+        // GIVEN
+        val cases = (1..4).map { FilePath("resources/a/case$it.feature") }
+        every { fileDifferenceInPort.getDifference() } returns mapOf(
+            TypeAction(Type.CASE, Action.MODIFIED) to cases,
+        )
+        val allStarted = CountDownLatch(cases.size)
+        every { applyDiffCaseInPort.execute(any(), Action.MODIFIED) } answers {
+            allStarted.countDown()
+            check(allStarted.await(5, TimeUnit.SECONDS)) { "operations did not run concurrently" }
+        }
+
+        // WHEN
+        publisher.publish()
+
+        // THEN
+        verify(exactly = 4) { applyDiffCaseInPort.execute(any(), Action.MODIFIED) }
+    }
+
+    @Test
+    fun `should remove sections after what is beneath them is removed or moved`() {
+        // GIVEN
+        every { fileDifferenceInPort.getDifference() } returns mapOf(
+            TypeAction(Type.SECTION, Action.REMOVED) to listOf(FilePath("resources/a/_Meta.json")),
+            TypeAction(Type.CASE, Action.REMOVED) to listOf(FilePath("resources/a/removed.feature")),
+            TypeAction(Type.CASE, Action.MOVED_OR_UPDATED) to listOf(FilePath("resources/b/moved.feature")),
+        )
+        every { applyDiffSectionInPort.execute(any(), any()) } answers { applied.add(firstArg<FilePath>().path) }
+        every { applyDiffCaseInPort.execute(any(), any()) } answers { applied.add(firstArg<FilePath>().path) }
+
+        // WHEN
+        publisher.publish()
+
+        // THEN
+        assertEquals("resources/a/_Meta.json", applied.last())
+        assertEquals(3, applied.size)
+    }
+
+    @Test
+    fun `should skip operations depending on a failed one and throw its error`() {
+        // GIVEN
+        every { fileDifferenceInPort.getDifference() } returns mapOf(
+            TypeAction(Type.SECTION, Action.ADDED) to listOf(FilePath("resources/a/_Meta.json")),
+            TypeAction(Type.CASE, Action.ADDED) to listOf(FilePath("resources/a/case.feature")),
+            TypeAction(Type.CASE, Action.MODIFIED) to listOf(FilePath("resources/b/case.feature")),
+        )
+        every { applyDiffSectionInPort.execute(any(), any()) } throws IllegalStateException("section failed")
+        every { applyDiffCaseInPort.execute(any(), any()) } answers { applied.add(firstArg<FilePath>().path) }
+
+        // WHEN
+        val exception = assertThrows<IllegalStateException> { publisher.publish() }
+
+        // THEN
+        assertEquals("section failed", exception.message)
+        assertEquals(listOf("resources/b/case.feature"), applied)
+        assertTrue(exception.suppressed.isEmpty())
+    }
+
+    companion object {
+        private const val BASE_URL = "http://localhost"
+        private const val LOGIN = "login"
+        private const val TOKEN = "token"
+    }
+}
@@ -0,0 +1,89 @@
+package systems.ajax.codetests.infrastructure.testrail.manager
+
+import client.testrail.BulkRequest
+import client.testrail.TestRail
+import client.testrail.model.Case
+import client.testrail.model.CaseField
+import io.mockk.every
+import io.mockk.impl.annotations.MockK
+import io.mockk.junit5.MockKExtension
+import io.mockk.justRun
+import io.mockk.verify
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.extension.ExtendWith
+import systems.ajax.codetests.application.model.appcase.AppCase
+import systems.ajax.codetests.application.port.output.GitObjectReaderOutPort
+
+@ExtendWith(MockKExtension::class)
+internal class CaseManagerTest {
+    @MockK
+    private lateinit var cases: TestRail.Cases
+
+    @MockK
+    private lateinit var testRail: TestRail
+
+    @MockK
+    private lateinit var moveToSection: BulkRequest<TestRail.Cases.MoveToSection>
+
+    @MockK
+    private lateinit var update: TestRail.Cases.Update
+
+    @MockK
+    private lateinit var gitObjectReader: GitObjectReaderOutPort
+
+    private lateinit var caseManager: CaseManager
+
+    @BeforeEach
+    fun setUp() {
+        caseManager = CaseManager(testRail, gitObjectReader, SUITE_ID)
+    }
+
+    @Test
+    fun `should move case with bulk move and update it`() {
+        // GIVEN
+        every {
+            testRail.cases()
+        } returns cases
+        every {
+            cases.moveToSection(SECTION_ID, SUITE_ID, listOf(CASE_ID))
+        } returns moveToSection
+        justRun {
+            moveToSection.execute()
+        }
+        every {
+            cases.update(any<Case>(), customCaseFields)
+        } returns update
+        every {
+            update.execute()
+        } returns Case()
+
+        // WHEN
+        caseManager.move(appCase, customCaseFields)
+
+        // THEN
+        verify(exactly = 1) { cases.moveToSection(SECTION_ID, SUITE_ID, listOf(CASE_ID)) }
+        verify(exactly = 1) { moveToSection.execute() }
+        verify(exactly = 1) { update.execute() }
+    }
+
+    private companion object {
+        private const val SUITE_ID: Int = 1
+        private const val SECTION_ID: Int = 5
+        private const val CASE_ID: Int = 42
+
+        private val customCaseFields = listOf<CaseField>()
+
+        private val appCase = AppCase(
+            CASE_ID,
+            SECTION_ID,
+            "title",
+            null,
+            null,
+            null,
+            null,
+            listOf(),
+            null,
+        )
+    }
+}
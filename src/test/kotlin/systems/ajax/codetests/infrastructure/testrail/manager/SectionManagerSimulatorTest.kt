@@ -0,0 +1,67 @@
+package systems.ajax.codetests.infrastructure.testrail.manager
+
+import client.testrail.TestRail
+import client.testrail.simulator.TestRailSimulator
+import io.mockk.mockk
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.springframework.http.HttpHeaders.CONTENT_TYPE
+import org.springframework.http.MediaType.APPLICATION_JSON_VALUE
+import org.springframework.web.reactive.function.client.ExchangeFilterFunctions.basicAuthentication
+import org.springframework.web.reactive.function.client.WebClient
+import org.springframework.web.util.DefaultUriBuilderFactory
+import systems.ajax.codetests.application.model.AppSection
+import systems.ajax.codetests.infrastructure.testrail.client.TestrailSectionWebClient
+import kotlin.test.assertEquals
+
+internal class SectionManagerSimulatorTest {
+
+    @Test
+    fun `should add and move section in simulated testrail`() {
+        // GIVEN
+        val parentId = sectionManager.add(AppSection(null, "parent", null, null))
+        val childId = sectionManager.add(AppSection(null, "child", "Noting", null))
+
+        // WHEN
+        sectionManager.move(AppSection(childId, "moved child", "Noting", parentId))
+
+        // THEN
+        val actual = testRail.sections().get(childId).execute()
+        assertEquals(parentId, actual.parentId)
+        assertEquals("moved child", actual.name)
+        assertEquals(1, actual.depth)
+        assertEquals(1, simulator.getRequestCount("move_section"))
+    }
+
+    companion object {
+        private const val PROJECT_ID: Int = 1
+        lateinit var simulator: TestRailSimulator
+        lateinit var testRail: TestRail
+        lateinit var sectionManager: SectionManager
+
+        @BeforeAll
+        @JvmStatic
+        fun setUp() {
+            simulator = TestRailSimulator.start()
+            val suiteId = simulator.addSuite(PROJECT_ID, "Master")
+            testRail = TestRail.builder(simulator.endPoint, "user", "password").build()
+
+            val factory = DefaultUriBuilderFactory(simulator.endPoint)
+            factory.encodingMode = DefaultUriBuilderFactory.EncodingMode.NONE
+            val webClient = WebClient.builder()
+                .defaultHeader(CONTENT_TYPE, APPLICATION_JSON_VALUE)
+                .uriBuilderFactory(factory)
+                .filter(basicAuthentication("user", "password"))
+                .build()
+
+            sectionManager = SectionManager(testRail, mockk(), TestrailSectionWebClient(webClient), PROJECT_ID, suiteId)
+        }
+
+        @AfterAll
+        @JvmStatic
+        fun tearDown() {
+            simulator.close()
+        }
+    }
+}
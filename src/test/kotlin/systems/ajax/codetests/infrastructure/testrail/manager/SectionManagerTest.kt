@@ -13,6 +13,7 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.extension.ExtendWith
 import systems.ajax.codetests.application.model.AppSection
 import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.application.port.output.GitObjectReaderOutPort
 import systems.ajax.codetests.infrastructure.testrail.client.TestrailSectionWebClient
 import systems.ajax.codetests.infrastructure.testrail.repository.ExtractionUtils
 import kotlin.test.assertEquals
@@ -37,11 +38,14 @@ internal class SectionManagerTest {
     @MockK
     private lateinit var testrailSectionWebClient: TestrailSectionWebClient
 
+    @MockK
+    private lateinit var gitObjectReader: GitObjectReaderOutPort
+
     private lateinit var sectionManager: SectionManager
 
     @BeforeEach
     fun setUp() {
-        sectionManager = SectionManager(testRail, testrailSectionWebClient, PROJECT_ID, SUITE_ID)
+        sectionManager = SectionManager(testRail, gitObjectReader, testrailSectionWebClient, PROJECT_ID, SUITE_ID)
     }
 
     @Test
@@ -105,7 +109,7 @@ internal class SectionManagerTest {
             delete.execute()
         }
         every {
-            ExtractionUtils.extractIdFromDeletedFile(filePath)
+            ExtractionUtils.extractIdFromDeletedFile(filePath, gitObjectReader)
         } returns returnedId
 
         // WHEN
@@ -115,7 +119,7 @@ internal class SectionManagerTest {
         verify(exactly = 1) { testRail.sections() }
         verify(exactly = 1) { sections.delete(returnedId) }
         verify(exactly = 1) { delete.execute() }
-        verify(exactly = 1) { ExtractionUtils.extractIdFromDeletedFile(filePath) }
+        verify(exactly = 1) { ExtractionUtils.extractIdFromDeletedFile(filePath, gitObjectReader) }
     }
 
     @Test
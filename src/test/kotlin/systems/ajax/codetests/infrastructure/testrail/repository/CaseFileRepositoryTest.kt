@@ -0,0 +1,101 @@
+package systems.ajax.codetests.infrastructure.testrail.repository
+
+import io.mockk.spyk
+import io.mockk.verify
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
+import systems.ajax.codetests.application.model.FilePath
+import systems.ajax.codetests.application.model.appcase.AppCase
+import systems.ajax.codetests.application.model.appcase.AppStep
+import systems.ajax.codetests.infrastructure.testrail.repository.entity.Meta
+import java.io.File
+import kotlin.test.assertEquals
+import kotlin.test.assertTrue
+
+internal class CaseFileRepositoryTest {
+    private val metaIndex: MetaIndex = MetaIndex()
+    private val caseFileRepository: CaseFileRepository = CaseFileRepository(metaIndex)
+
+    @TempDir
+    private lateinit var directory: File
+
+    @Test
+    fun `should get parsed case with the current section id`() {
+        // GIVEN
+        val feature = File(directory, "case.feature").apply { writeText(FEATURE) }
+        val meta = File(directory, "_Meta.json").apply { writeText("{\"id\":5}") }
+        caseFileRepository.parse(listOf(FilePath(feature.path)))
+        caseFileRepository.get(FilePath(feature.path))
+        metaIndex.put(meta.toPath(), Meta(id = 6))
+
+        // WHEN
+        val actual: AppCase = caseFileRepository.get(FilePath(feature.path))
+
+        // THEN
+        assertEquals(
+            AppCase(
+                id = 3,
+                sectionId = 6,
+                title = "Case",
+                type = AppCase.CaseType.REGRESSION,
+                priority = AppCase.PriorityType.HIGH,
+                estimate = null,
+                refs = null,
+                steps = listOf(AppStep("I wait", "it works")),
+                precondition = null,
+            ),
+            actual
+        )
+    }
+
+    @Test
+    fun `should parse the same content once until the parsed features are cleared`() {
+        // GIVEN
+        val repository = spyk(CaseFileRepository(metaIndex), recordPrivateCalls = true)
+        File(directory, "_Meta.json").writeText("{\"id\":5}")
+        val files = listOf("case.feature", "copy.feature").map { File(directory, it).apply { writeText(FEATURE) } }
+        val filePaths = files.map { FilePath(it.path) }
+
+        // WHEN
+        repository.parse(filePaths)
+        filePaths.forEach { repository.get(it) }
+        repository.clearParsed()
+        repository.get(filePaths.first())
+
+        // THEN
+        verify(exactly = 2) { repository["parseFeature"](any<String>(), any<ByteArray>()) }
+    }
+
+    @Test
+    fun `should report every feature file which fails to parse`() {
+        // GIVEN
+        val valid = File(directory, "valid.feature").apply { writeText(FEATURE) }
+        val invalid = (1..2).map {
+            File(directory, "invalid$it.feature").apply { writeText("Given a step outside of a feature") }
+        }
+
+        // WHEN
+        val exception = assertThrows<IllegalArgumentException> {
+            caseFileRepository.parse((listOf(valid) + invalid).map { FilePath(it.path) })
+        }
+
+        // THEN
+        assertTrue(exception.message!!.startsWith("Failed to parse 2 feature files"))
+        invalid.forEach { assertTrue(exception.message!!.contains(it.path)) }
+        assertEquals(2, exception.suppressed.size)
+    }
+
+    companion object {
+        private val FEATURE = """
+            @id:3
+            @type:regression
+            @priority:high
+            Feature: Case
+
+              Scenario: works
+                When I wait
+                Then it works
+        """.trimIndent()
+    }
+}
@@ -0,0 +1,68 @@
+package systems.ajax.codetests.infrastructure.testrail.repository
+
+import kotlinx.serialization.SerializationException
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import systems.ajax.codetests.infrastructure.testrail.repository.entity.Meta
+import java.io.File
+import kotlin.test.assertEquals
+import kotlin.test.assertFailsWith
+import kotlin.test.assertNull
+
+internal class MetaIndexTest {
+    private val metaIndex: MetaIndex = MetaIndex()
+
+    @TempDir
+    private lateinit var directory: File
+
+    @Test
+    fun `should index every meta file of the resources folder on first lookup`() {
+        // GIVEN
+        val resources = File(directory, "src/main/resources")
+        val parent = File(resources, "parent/_Meta.json").apply { parentFile.mkdirs() }
+        val child = File(resources, "parent/child/_Meta.json").apply { parentFile.mkdirs() }
+        parent.writeText("{\"id\":1,\"description\":\"Parent\"}")
+        child.writeText("")
+
+        // WHEN
+        val parentMeta = metaIndex.get(parent.toPath())
+        parent.delete()
+        child.delete()
+
+        // THEN
+        assertEquals(Meta(1, "Parent"), parentMeta)
+        assertEquals(Meta(), metaIndex.get(child.toPath()))
+        assertEquals(Meta(1, "Parent"), metaIndex.get(parent.toPath()))
+        assertNull(metaIndex.get(File(resources, "_Meta.json").toPath()))
+    }
+
+    @Test
+    fun `should fail only the lookup of a meta file which cannot be decoded`() {
+        // GIVEN
+        val resources = File(directory, "src/main/resources")
+        val section = File(resources, "section/_Meta.json").apply { parentFile.mkdirs() }
+        val broken = File(resources, "broken/_Meta.json").apply { parentFile.mkdirs() }
+        section.writeText("{\"id\":1,\"description\":\"Section\"}")
+        broken.writeText("{\"id\":")
+
+        // WHEN
+        val sectionMeta = metaIndex.get(section.toPath())
+
+        // THEN
+        assertEquals(Meta(1, "Section"), sectionMeta)
+        assertFailsWith<SerializationException> { metaIndex.get(broken.toPath()) }
+    }
+
+    @Test
+    fun `should serve ids put into the index`() {
+        // GIVEN
+        val meta = File(directory, "_Meta.json").apply { writeText("{\"description\":\"Section\"}") }
+        metaIndex.get(meta.toPath())
+
+        // WHEN
+        metaIndex.put(meta.toPath(), Meta(7, "Section"))
+
+        // THEN
+        assertEquals(Meta(7, "Section"), metaIndex.get(meta.toPath()))
+    }
+}
@@ -15,7 +15,7 @@ import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 
 internal class SectionRepositoryIT {
-    private val sectionFileRepository: SectionFileRepository = SectionFileRepository()
+    private val sectionFileRepository: SectionFileRepository = SectionFileRepository(MetaIndex())
 
     @ParameterizedTest
     @MethodSource("arguments for should return valid section")
@@ -1,6 +1,8 @@
 plugins {
     java
+    `java-test-fixtures`
     id("jacoco")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "systems.ajax.codetests"
@@ -23,8 +25,22 @@ dependencies {
     implementation("com.google.guava:guava:33.2.0-jre")
     implementation("org.slf4j:slf4j-api:2.0.16")
     implementation("org.slf4j:slf4j-simple:2.0.16")
+
+    // In-memory TestRail simulator in src/testFixtures, for load and failure testing of clients
+    testFixturesImplementation("com.fasterxml.jackson.core:jackson-databind:2.18.1")
+    testFixturesImplementation("com.google.guava:guava:33.2.0-jre")
+    jmhImplementation(testFixtures(project))
 }
 
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
 }
+
+// Benchmarks live in src/jmh and run with `./gradlew :src:testrailclient:jmh`, optionally narrowed down with
+// `-PjmhIncludes=<regex>`. Results, with the bytes allocated per operation, go to build/results/jmh/results.json
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+    includes = providers.gradleProperty("jmhIncludes").map { listOf(it) }.orElse(emptyList())
+}
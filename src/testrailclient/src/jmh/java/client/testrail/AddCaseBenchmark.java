@@ -0,0 +1,74 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.model.Case;
+import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cases with separated steps encoded into an {@code add_case} body, decoded from it, and sent through {@link Request}
+ * against an in-memory transport per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AddCaseBenchmark {
+
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+
+    private byte[] body;
+    private Case testCase;
+    private CaseFieldSchema caseFieldSchema;
+    private ObjectReader caseReader;
+    private ObjectWriter addCaseWriter;
+    private TestRail testRail;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = PageDeserializerBenchmark.fixture("add_case.json");
+        caseFieldSchema = CaseFieldSchema.of(JSON.readValue(PageDeserializerBenchmark.fixture("get_case_fields.json"), new TypeReference<List<CaseField>>() {}));
+        caseReader = JSON.readerFor(Case.class)
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), caseFieldSchema));
+        addCaseWriter = JSON.writerWithView(TestRail.Cases.Add.class);
+        testCase = caseReader.readValue(body);
+        testRail = TestRail.builder("http://localhost", "user", "password")
+                .transport(new FixtureTransport(body))
+                .build();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return addCaseWriter.writeValueAsBytes(testCase);
+    }
+
+    @Benchmark
+    public Case decode() throws IOException {
+        return caseReader.readValue(body);
+    }
+
+    @Benchmark
+    public Case request() {
+        return testRail.cases().add(3, testCase, caseFieldSchema).execute();
+    }
+}
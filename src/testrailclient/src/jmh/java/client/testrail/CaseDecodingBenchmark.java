@@ -0,0 +1,149 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.FieldModule;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.internal.UnixTimestampModule;
+import client.testrail.model.Case;
+import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import client.testrail.model.Field;
+import client.testrail.model.Page;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Pages of 250 cases decoded per second, decoding custom fields from the parser with a compiled {@link CaseFieldSchema}
+ * versus the former deserializer which indexed the case field list and converted the untyped custom field values for
+ * every case. With the {@link CaseFieldSchema#lazy() lazy} schema custom fields are only buffered, as in bulk reads which
+ * never look at them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CaseDecodingBenchmark {
+
+    private static final TypeReference<Page<List<Case>>> PAGE_TYPE = new TypeReference<Page<List<Case>>>() {};
+
+    private byte[] page;
+    private ObjectReader schemaReader;
+    private ObjectReader lazySchemaReader;
+    private ObjectReader perCaseIndexReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = ObjectMapperFactory.getObjectMapper();
+        page = PageDeserializerBenchmark.fixture("get_cases_page.json");
+        List<CaseField> caseFields = json.readValue(PageDeserializerBenchmark.fixture("get_case_fields.json"), new TypeReference<List<CaseField>>() {});
+        schemaReader = json.readerFor(PAGE_TYPE)
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), CaseFieldSchema.of(caseFields)));
+        lazySchemaReader = json.readerFor(PAGE_TYPE)
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), CaseFieldSchema.of(caseFields).lazy()));
+        perCaseIndexReader = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .registerModules(new PerCaseIndexModule(), new FieldModule(), new UnixTimestampModule())
+                .readerFor(PAGE_TYPE)
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), caseFields));
+    }
+
+    @Benchmark
+    public Page<List<Case>> schema() throws IOException {
+        return schemaReader.readValue(page);
+    }
+
+    @Benchmark
+    public Page<List<Case>> lazySchema() throws IOException {
+        return lazySchemaReader.readValue(page);
+    }
+
+    @Benchmark
+    public Page<List<Case>> perCaseIndex() throws IOException {
+        return perCaseIndexReader.readValue(page);
+    }
+
+    /**
+     * The case module as it was before custom fields were decoded with a {@link CaseFieldSchema}.
+     */
+    private static class PerCaseIndexModule extends SimpleModule {
+
+        @Override
+        public void setupModule(SetupContext setupContext) {
+            setupContext.addBeanDeserializerModifier(new BeanDeserializerModifier() {
+                @Override
+                public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDescription, JsonDeserializer<?> deserializer) {
+                    return Case.class.isAssignableFrom(beanDescription.getBeanClass()) ? new PerCaseIndexDeserializer(deserializer) : deserializer;
+                }
+            });
+            super.setupModule(setupContext);
+        }
+    }
+
+    private static class PerCaseIndexDeserializer extends StdDeserializer<Case> implements ResolvableDeserializer {
+        private final JsonDeserializer<?> defaultDeserializer;
+
+        PerCaseIndexDeserializer(JsonDeserializer<?> defaultDeserializer) {
+            super(Case.class);
+            this.defaultDeserializer = defaultDeserializer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Case deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+            Case testCase = (Case) defaultDeserializer.deserialize(jsonParser, deserializationContext);
+            ObjectMapper mapper = (ObjectMapper) jsonParser.getCodec();
+            List<CaseField> caseFieldList = (List<CaseField>) deserializationContext.findInjectableValue(Case.class.toString(), null, null);
+            Map<String, CaseField> caseFields = Maps.uniqueIndex(caseFieldList, CaseField::getName);
+            Map<String, Object> customFields = new HashMap<>(testCase.getCustomFields().size());
+            for (Map.Entry<String, Object> customField : testCase.getCustomFields().entrySet()) {
+                customFields.put(customField.getKey(), mapper.convertValue(customField.getValue(),
+                        Field.Type.getType(caseFields.get(customField.getKey()).getTypeId()).getTypeReference()));
+            }
+            testCase.setCustomFields(customFields);
+            return testCase;
+        }
+
+        @Override
+        public void resolve(DeserializationContext deserializationContext) throws JsonMappingException {
+            ((ResolvableDeserializer) defaultDeserializer).resolve(deserializationContext);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code get_case_fields} responses decoded per second, with the field configs decoded by the field module, and the
+ * schema compiled from them for decoding cases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CaseFieldDecodingBenchmark {
+
+    private byte[] caseFields;
+    private ObjectReader caseFieldsReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        caseFields = PageDeserializerBenchmark.fixture("get_case_fields.json");
+        caseFieldsReader = ObjectMapperFactory.getObjectMapper().readerFor(new TypeReference<List<CaseField>>() {});
+    }
+
+    @Benchmark
+    public List<CaseField> decode() throws IOException {
+        return caseFieldsReader.readValue(caseFields);
+    }
+
+    @Benchmark
+    public CaseFieldSchema decodeSchema() throws IOException {
+        return CaseFieldSchema.of(caseFieldsReader.<List<CaseField>>readValue(caseFields));
+    }
+}
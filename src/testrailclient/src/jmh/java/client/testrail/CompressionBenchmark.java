@@ -0,0 +1,159 @@
+package client.testrail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.model.Case;
+import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import client.testrail.model.Page;
+import client.testrail.transport.Transport;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to fetch a recorded {@code get_cases} page and to send a recorded {@code add_case} body over a local link throttled
+ * to a bandwidth, with and without compression.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+    private static final int CHUNK_SIZE = 4096;
+
+    @Param({"false", "true"})
+    public boolean compression;
+
+    @Param({"1000000", "10000000"})
+    public long bytesPerSecond;
+
+    private byte[] page;
+    private byte[] compressedPage;
+    private Case testCase;
+    private CaseFieldSchema caseFieldSchema;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private TestRail testRail;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        page = PageDeserializerBenchmark.fixture("get_cases_page.json");
+        compressedPage = gzip(page);
+        caseFieldSchema = CaseFieldSchema.of(JSON.readValue(PageDeserializerBenchmark.fixture("get_case_fields.json"), new TypeReference<List<CaseField>>() {}));
+        byte[] addCase = PageDeserializerBenchmark.fixture("add_case.json");
+        testCase = JSON.readerFor(Case.class)
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), caseFieldSchema))
+                .readValue(addCase);
+
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 16);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            byte[] request = exchange.getRequestBody().readAllBytes();
+            throttle(request.length);
+            if (exchange.getRequestURI().getRawQuery().startsWith("/api/v2/add_case/")) {
+                boolean compressed = "gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+                respond(exchange, compressed ? gunzip(request) : request, false);
+            } else {
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+                respond(exchange, gzip ? compressedPage : page, gzip);
+            }
+        });
+        server.start();
+
+        Duration timeout = Duration.ofSeconds(30);
+        TestRail.Builder builder = TestRail.builder("http://localhost:" + server.getAddress().getPort(), "user", "password")
+                .transport(Transport.httpClient(timeout, timeout))
+                .acceptCompressedResponses(compression);
+        if (compression) {
+            builder.compressRequests(256);
+        }
+        testRail = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Page<List<Case>> getCasesPage() {
+        return testRail.cases().list(1, 1, caseFieldSchema).fetchFirstPage();
+    }
+
+    @Benchmark
+    public Case addCase() {
+        return testRail.cases().add(3, testCase, caseFieldSchema).execute();
+    }
+
+    private void respond(HttpExchange exchange, byte[] body, boolean gzip) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (gzip) {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+                int length = Math.min(CHUNK_SIZE, body.length - offset);
+                out.write(body, offset, length);
+                out.flush();
+                throttle(length);
+            }
+        }
+    }
+
+    private void throttle(int bytes) {
+        LockSupport.parkNanos(TimeUnit.SECONDS.toNanos(bytes) / bytesPerSecond);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
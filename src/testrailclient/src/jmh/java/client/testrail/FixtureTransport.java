@@ -0,0 +1,46 @@
+package client.testrail;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Optional;
+import client.testrail.transport.Transport;
+import client.testrail.transport.TransportRequest;
+import client.testrail.transport.TransportResponse;
+
+/**
+ * {@link Transport} answering every request with the same in-memory body, so that benchmarks measure the client rather
+ * than the network.
+ */
+class FixtureTransport implements Transport {
+
+    private final byte[] body;
+
+    FixtureTransport(byte[] body) {
+        this.body = body;
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) {
+        InputStream stream = new ByteArrayInputStream(body);
+        return new TransportResponse() {
+            @Override
+            public int getStatusCode() {
+                return 200;
+            }
+
+            @Override
+            public Optional<String> getHeader(String name) {
+                return Optional.empty();
+            }
+
+            @Override
+            public InputStream getBody() {
+                return stream;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
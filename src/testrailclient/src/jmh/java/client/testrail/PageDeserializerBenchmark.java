@@ -0,0 +1,91 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.CaseModule;
+import client.testrail.internal.FieldModule;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.internal.UnixTimestampModule;
+import client.testrail.model.Case;
+import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import client.testrail.model.Page;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to deserialize a {@code get_cases} page of 250 cases, streaming the entities with the shared mapper versus the
+ * former approach of reading the page into a tree and reparsing every entity with a newly built mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageDeserializerBenchmark {
+
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+
+    private byte[] page;
+    private CaseFieldSchema caseFieldSchema;
+    private ObjectReader pageReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = fixture("get_cases_page.json");
+        caseFieldSchema = CaseFieldSchema.of(JSON.readValue(fixture("get_case_fields.json"), new TypeReference<List<CaseField>>() {}));
+        pageReader = JSON.readerFor(new TypeReference<Page<List<Case>>>() {})
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), caseFieldSchema));
+    }
+
+    @Benchmark
+    public Page<List<Case>> streaming() throws IOException {
+        return pageReader.readValue(page);
+    }
+
+    @Benchmark
+    public List<Case> treeReparse() throws IOException {
+        JsonNode node = JSON.readTree(page);
+        List<Case> cases = new ArrayList<>();
+        ObjectMapper mapper = new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+                .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .registerModules(new CaseModule(), new FieldModule(), new UnixTimestampModule());
+        for (JsonNode element : node.get("cases")) {
+            cases.add(mapper.readerFor(Case.class).with(new InjectableValues.Std().addValue(Case.class.toString(), caseFieldSchema))
+                    .readValue(element.toString()));
+        }
+        return cases;
+    }
+
+    static byte[] fixture(String name) throws IOException {
+        try (InputStream stream = PageDeserializerBenchmark.class.getResourceAsStream("/fixtures/" + name)) {
+            return stream.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.internal.QueryParameterEncoder;
+import client.testrail.internal.QueryParameterString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building the query string of a {@code get_cases} request with every filter set, using the encoder resolved for the
+ * request class versus serializing the request to JSON and reading the JSON back into the query string, and building the
+ * whole URL of the request and of one of its pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryParameterBenchmark {
+
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+
+    private TestRail.Cases.List request;
+
+    @Setup
+    public void setUp() {
+        request = TestRail.builder("http://localhost", "user", "password").build()
+                .cases()
+                .list(1, 9, Collections.emptyList())
+                .withSectionId(3)
+                .withCreatedAfter(new Date(1700000000000L))
+                .withCreatedBefore(new Date(1710000000000L))
+                .withCreatedBy(Arrays.asList(1, 2, 3))
+                .withMilestoneId(Arrays.asList(4, 5))
+                .withPriorityId(Arrays.asList(1, 2))
+                .withTypeId(Arrays.asList(1, 6, 7))
+                .withUpdatedAfter(new Date(1700000000000L))
+                .withUpdatedBefore(new Date(1710000000000L))
+                .withUpdatedBy(Arrays.asList(8, 9));
+    }
+
+    @Benchmark
+    public String encoder() {
+        QueryParameterString queryParameters = new QueryParameterString();
+        QueryParameterEncoder.forClass(request.getClass()).encode(request, queryParameters);
+        return queryParameters.toString();
+    }
+
+    @Benchmark
+    public String jsonRoundTrip() throws IOException {
+        String queryParamJson = JSON.writerWithView(request.getClass()).writeValueAsString(request);
+        return JSON.readValue(queryParamJson, QueryParameterString.class).toString();
+    }
+
+    @Benchmark
+    public String url() {
+        return request.getUrl();
+    }
+
+    @Benchmark
+    public String pageUrl() {
+        return request.getPageUrl(250, 250);
+    }
+}
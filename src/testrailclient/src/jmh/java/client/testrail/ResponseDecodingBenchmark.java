@@ -0,0 +1,75 @@
+package client.testrail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.model.Case;
+import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import client.testrail.model.Page;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.io.ByteStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of a {@code get_cases} response of 250 cases by {@link Request}, which streams the body into the page, versus
+ * the former decoding which first copied the body into a String, rewrote it and scanned it for the page fields.
+ * Run with {@code -prof gc} to compare the bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseDecodingBenchmark {
+
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+
+    private byte[] page;
+    private TestRail.Cases.List request;
+    private ObjectReader pageReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = PageDeserializerBenchmark.fixture("get_cases_page.json");
+        List<CaseField> caseFields = JSON.readValue(PageDeserializerBenchmark.fixture("get_case_fields.json"), new TypeReference<List<CaseField>>() {});
+        request = TestRail.builder("http://localhost", "user", "password")
+                .transport(new FixtureTransport(page))
+                .build()
+                .cases()
+                .list(1, 9, caseFields);
+        pageReader = JSON.readerFor(new TypeReference<Page<List<Case>>>() {})
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), CaseFieldSchema.of(caseFields)));
+    }
+
+    @Benchmark
+    public Page<List<Case>> streaming() {
+        return request.pages().next();
+    }
+
+    @Benchmark
+    public Page<List<Case>> stringPayload() throws IOException {
+        String payload = new String(ByteStreams.toByteArray(new ByteArrayInputStream(page)), StandardCharsets.UTF_8)
+                .replace("\"_links\":", "\"links\":");
+        if (payload.contains("\"offset\":") && payload.contains("\"limit\":") && payload.contains("\"size\":")) {
+            return pageReader.readValue(payload);
+        }
+        throw new IllegalStateException("fixture is not a page");
+    }
+}
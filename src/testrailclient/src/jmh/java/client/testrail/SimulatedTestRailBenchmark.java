@@ -0,0 +1,74 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import client.testrail.model.Case;
+import client.testrail.simulator.TestRailSimulator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to list a suite of 2000 cases, in 8 pages, from a {@link TestRailSimulator} answering with 10 to 30 ms latency,
+ * with and without prefetching pages, and with a share of the requests rejected with {@code 429} and retried.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimulatedTestRailBenchmark {
+
+    private static final int CASES = 2000;
+
+    @Param({"0", "4"})
+    public int prefetch;
+
+    @Param({"0", "0.1"})
+    public double tooManyRequestsRate;
+
+    private TestRailSimulator simulator;
+    private TestRail testRail;
+    private int projectId;
+    private int suiteId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        simulator = TestRailSimulator.start();
+        projectId = 1;
+        suiteId = simulator.addSuite(projectId, "Master");
+        int sectionId = simulator.addSection(suiteId, null, "Section");
+        for (int i = 1; i <= CASES; i++) {
+            simulator.addCase(sectionId, "Case " + i);
+        }
+        simulator.latency(Duration.ofMillis(10), Duration.ofMillis(30))
+                .tooManyRequestsRate(tooManyRequestsRate, Duration.ZERO);
+        testRail = TestRail.builder(simulator.getEndPoint(), "user", "password")
+                .retries(5, Duration.ofMillis(10), Duration.ofMillis(100))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        simulator.close();
+    }
+
+    @Benchmark
+    public List<Case> listCases() {
+        return testRail.cases().list(projectId, suiteId, Collections.emptyList()).withPrefetch(prefetch).execute();
+    }
+}
@@ -0,0 +1,86 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import client.testrail.model.Suite;
+import client.testrail.transport.Transport;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Requests per second of {@code get_suite} against a local stub server for each {@link Transport}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class TransportBenchmark {
+
+    private static final byte[] SUITE = ("{\"id\":1,\"name\":\"Master\",\"description\":null,\"project_id\":1,"
+            + "\"is_master\":true,\"is_baseline\":false,\"is_completed\":false,\"completed_on\":null,"
+            + "\"url\":\"http://localhost/index.php?/suites/view/1\"}").getBytes(StandardCharsets.UTF_8);
+
+    @Param({"httpClient", "urlConnection"})
+    public String transport;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private TestRail testRail;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // without TCP_NODELAY the stub server, not the client, bounds throughput
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        serverExecutor = Executors.newFixedThreadPool(16);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, SUITE.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(SUITE);
+            }
+        });
+        server.start();
+
+        Duration timeout = Duration.ofSeconds(10);
+        testRail = TestRail.builder("http://localhost:" + server.getAddress().getPort(), "user", "password")
+                .transport("httpClient".equals(transport) ? Transport.httpClient(timeout, timeout) : Transport.urlConnection(timeout, timeout))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Suite getSuite() {
+        return testRail.suites().get(1).execute();
+    }
+}
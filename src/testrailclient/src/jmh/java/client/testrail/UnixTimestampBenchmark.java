@@ -0,0 +1,62 @@
+package client.testrail;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.internal.UnixTimestampModule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Arrays of 500 timestamps, as in the {@code created_on} and {@code updated_on} fields of a {@code get_cases} page,
+ * decoded and encoded by {@link UnixTimestampModule} per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UnixTimestampBenchmark {
+
+    private static final int TIMESTAMPS = 500;
+
+    private byte[] timestamps;
+    private Date[] dates;
+    private ObjectReader datesReader;
+    private ObjectWriter datesWriter;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper json = ObjectMapperFactory.getObjectMapper();
+        dates = new Date[TIMESTAMPS];
+        for (int i = 0; i < TIMESTAMPS; i++) {
+            dates[i] = new Date((1700000000L + i * 37L) * 1000);
+        }
+        datesReader = json.readerFor(Date[].class);
+        datesWriter = json.writerFor(Date[].class);
+        timestamps = datesWriter.writeValueAsBytes(dates);
+    }
+
+    @Benchmark
+    public Date[] decode() throws IOException {
+        return datesReader.readValue(timestamps);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return datesWriter.writeValueAsBytes(dates);
+    }
+}
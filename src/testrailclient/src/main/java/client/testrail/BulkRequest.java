@@ -0,0 +1,63 @@
+package client.testrail;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+/**
+ * TestRail request for many entities at once, which is split into as many requests as the server limits of a single
+ * bulk request require.
+ *
+ * @param <R> the type of the requests of the chunks
+ */
+public final class BulkRequest<R extends Request<Void>> {
+
+    private final List<R> requests;
+
+    BulkRequest(List<R> requests) {
+        this.requests = ImmutableList.copyOf(requests);
+    }
+
+    /**
+     * Get the requests which are sent to TestRail, one per chunk of entities.
+     *
+     * @return the requests
+     */
+    public List<R> getRequests() {
+        return requests;
+    }
+
+    /**
+     * Get a copy of this request with the requests of all chunks marked as safe to be sent again.
+     *
+     * @return a copy of this request marked as retry safe
+     * @see Request#withRetrySafe()
+     * @see TestRail.Builder#retries(int, Duration, Duration)
+     */
+    @SuppressWarnings("unchecked")
+    public BulkRequest<R> withRetrySafe() {
+        return new BulkRequest<>(Lists.transform(requests, request -> (R) request.withRetrySafe()));
+    }
+
+    /**
+     * Execute the requests of all chunks one after the other. When a request fails, the chunks before it have been
+     * applied and the chunks after it are not sent.
+     */
+    public void execute() {
+        for (R request : requests) {
+            request.execute();
+        }
+    }
+
+    /**
+     * Execute the requests of all chunks concurrently on the executor of the {@link TestRail} client.
+     *
+     * @return a future completed when all chunks are done, or exceptionally with the error of the first failed chunk
+     * @see Request#executeAsync()
+     */
+    public CompletableFuture<Void> executeAsync() {
+        return CompletableFuture.allOf(requests.stream().map(Request::executeAsync).toArray(CompletableFuture[]::new));
+    }
+}
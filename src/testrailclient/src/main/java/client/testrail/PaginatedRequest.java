@@ -0,0 +1,197 @@
+package client.testrail;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import client.testrail.model.Page;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.base.Throwables;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * TestRail request for a list of entities which TestRail returns in pages.
+ * <p>{@link #execute()} fetches every page and returns them as one list. Use {@link #stream()} or {@link #iterator()}
+ * to process large lists page by page instead, so that only the current page is held in memory.</p>
+ * <p>Pages are fetched one after the other by default. Use {@link #withPrefetch(int)} to fetch the pages after the first one
+ * concurrently, which makes long lists much faster to fetch since each page mostly waits for TestRail.</p>
+ *
+ * @param <E> the type of the listed entities
+ */
+public abstract class PaginatedRequest<E> extends Request<List<E>> {
+
+    // only set on copies, before they are returned by a with* method
+    private int prefetchedPages;
+
+    PaginatedRequest(TestRailConfig config, Method method, String restPath, TypeReference<List<E>> responseType,
+                     TypeReference<Page<List<E>>> pageType) {
+        super(config, method, restPath, responseType, pageType);
+    }
+
+    /**
+     * Get a copy of this request which fetches up to the given number of pages ahead concurrently, once the first page
+     * has shown the page size. The pages are still returned in order, and at most {@code pages} pages which were not
+     * consumed yet are held in memory. Since TestRail does not tell the total number of entities, up to {@code pages}
+     * requests past the last page are sent.
+     * <p>The requests for the pages run on the executor and within the concurrency limit of the {@link TestRail} client.</p>
+     *
+     * @param pages the number of pages to fetch ahead, or zero to fetch pages one after the other
+     * @return a copy of this request with prefetching set
+     * @throws IllegalArgumentException if pages is negative
+     */
+    public PaginatedRequest<E> withPrefetch(int pages) {
+        checkArgument(pages >= 0, "pages should not be negative");
+        return copyWith(copy -> copy.prefetchedPages = pages);
+    }
+
+    /**
+     * Get an iterator over the listed entities. The next page is fetched from TestRail only when all entities of the
+     * current page have been consumed. Each call starts again from the first page.
+     * <p>Close the iterator when leaving it before the end, so that the pages still being prefetched are cancelled.</p>
+     *
+     * @return a lazy iterator
+     */
+    public CloseableIterator<E> iterator() {
+        final Iterator<Page<List<E>>> pages = pages();
+        return new CloseableIterator<E>() {
+            private final Iterator<E> entities = new AbstractIterator<E>() {
+                private Iterator<E> current = Collections.emptyIterator();
+
+                @Override
+                protected E computeNext() {
+                    while (!current.hasNext()) {
+                        if (!pages.hasNext()) {
+                            return endOfData();
+                        }
+                        current = pages.next().objects.iterator();
+                    }
+                    return current.next();
+                }
+            };
+
+            @Override
+            public boolean hasNext() {
+                return entities.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return entities.next();
+            }
+
+            @Override
+            public void close() {
+                if (pages instanceof PrefetchingPages) {
+                    ((PrefetchingPages) pages).close();
+                }
+            }
+        };
+    }
+
+    @Override
+    Iterator<Page<List<E>>> pages() {
+        return prefetchedPages == 0 ? super.pages() : new PrefetchingPages();
+    }
+
+    private static <P> P await(Future<P> page) {
+        try {
+            return Futures.getUnchecked(page);
+        } catch (UncheckedExecutionException e) {
+            // rethrow the TestRailException or transport failure of the page as is
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Get a sequential stream of the listed entities, fetching pages lazily as the stream is consumed.
+     * <p>Close the stream, e.g. with try-with-resources, when it may not be consumed to the end, so that the pages still
+     * being prefetched are cancelled.</p>
+     *
+     * @return a lazy stream
+     * @see #iterator()
+     */
+    public Stream<E> stream() {
+        CloseableIterator<E> iterator = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Iterator over the listed entities, which cancels the requests for the pages it prefetched when it is closed.
+     *
+     * @param <E> the type of the listed entities
+     */
+    public interface CloseableIterator<E> extends Iterator<E>, AutoCloseable {
+
+        /**
+         * Cancel the requests for the pages prefetched but not consumed yet. The iterator should not be used afterwards.
+         */
+        @Override
+        void close();
+    }
+
+    /**
+     * Pages fetched ahead concurrently once the first page has shown the page size, see {@link #withPrefetch(int)}.
+     */
+    private class PrefetchingPages extends AbstractIterator<Page<List<E>>> {
+        private final Deque<Future<Page<List<E>>>> prefetched = new ArrayDeque<>();
+        private boolean first = true;
+        private int nextOffset;
+        private int limit;
+
+        @Override
+        protected Page<List<E>> computeNext() {
+            Page<List<E>> page;
+            if (first) {
+                first = false;
+                page = fetchFirstPage();
+                if (hasNextPage(page) && page.limit > 0) {
+                    nextOffset = page.offset + page.size;
+                    limit = page.limit;
+                    while (prefetched.size() < prefetchedPages) {
+                        prefetchNext();
+                    }
+                }
+                return page;
+            }
+            if (prefetched.isEmpty()) {
+                return endOfData();
+            }
+            try {
+                page = await(prefetched.poll());
+            } catch (RuntimeException e) {
+                close();
+                throw e;
+            }
+            if (hasNextPage(page)) {
+                prefetchNext();
+            } else {
+                // the remaining pages are past the end of the list
+                close();
+            }
+            return page;
+        }
+
+        void close() {
+            // interrupted requests release their permits, and requests not started yet are never sent
+            for (Future<Page<List<E>>> page = prefetched.poll(); page != null; page = prefetched.poll()) {
+                page.cancel(true);
+            }
+        }
+
+        private void prefetchNext() {
+            prefetched.add(fetchPageAsync(nextOffset, limit));
+            nextOffset += limit;
+        }
+    }
+}
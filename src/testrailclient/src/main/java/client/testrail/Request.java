@@ -24,69 +24,74 @@
 
 package client.testrail;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.InterruptedIOException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
-import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import client.testrail.internal.CaseModule;
-import client.testrail.internal.FieldModule;
-import client.testrail.internal.PageDeserializer;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import client.testrail.internal.Compression;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.internal.QueryParameterEncoder;
 import client.testrail.internal.QueryParameterString;
-import client.testrail.internal.UnixTimestampModule;
-import client.testrail.internal.UrlConnectionFactory;
+import client.testrail.internal.Throttle;
 import client.testrail.model.Page;
-import com.fasterxml.jackson.annotation.JsonInclude;
+import client.testrail.transport.TransportRequest;
+import client.testrail.transport.TransportResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.InjectableValues;
-import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategy;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.google.common.base.Charsets;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteStreams;
-import jakarta.xml.bind.DatatypeConverter;
 import lombok.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import static com.google.common.base.Preconditions.checkState;
 
 /**
  * TestRail request.
+ * <p>A request is an immutable description of a call to the API: its {@code with*} methods return a changed copy and
+ * leave the request they are called on as it is. Executing a request does not change it either, so a request can be
+ * executed any number of times, and from many threads at once once it is safely published.</p>
  */
-public abstract class Request<T> {
+public abstract class Request<T> implements Cloneable {
 
-    private static final UrlConnectionFactory DEFAULT_URL_CONNECTION_FACTORY = new UrlConnectionFactory();
     private static final Logger log = LoggerFactory.getLogger(Request.class);
 
-    private static final ObjectMapper JSON = new ObjectMapper()
-            .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
-            .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false)
-            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
-            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-            .registerModules(new CaseModule(), new FieldModule(), new UnixTimestampModule());
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_UNSUPPORTED_MEDIA_TYPE = 415;
+    private static final Set<String> PAGE_PARAMETERS = ImmutableSet.of("offset", "limit");
 
     @NonNull
     private final TestRailConfig config;
     @NonNull
     private final Method method;
     @NonNull
-    private String restPath;
-    private String apiSegment;
+    private final String restPath;
     private final Class<? extends T> responseClass;
     private final TypeReference<? extends T> responseType;
     private final TypeReference<Page<T>> pageType;
-    private UrlConnectionFactory urlConnectionFactory = DEFAULT_URL_CONNECTION_FACTORY;
+    // only set on copies, before they are returned by a with* method
+    private boolean retrySafe;
 
     Request(TestRailConfig config, Method method, String restPath, Class<? extends T> responseClass, TypeReference<? extends T>
             responseType, TypeReference<Page<T>> pageType) {
@@ -96,8 +101,7 @@ public abstract class Request<T> {
         this.responseClass = responseClass;
         this.responseType = responseType;
         this.pageType = pageType;
-        this.apiSegment = config.getBaseApiUrl().split("\\?")[1];
-        this.restPath = restPath.replace(this.apiSegment, "");
+        this.restPath = restPath.replace(config.getBaseApiUrl().split("\\?")[1], "");
     }
 
     /**
@@ -129,13 +133,28 @@ public abstract class Request<T> {
      * Get URL string for this request.
      *
      * @return the string URL
-     * @throws IOException if there is an error creating query parameter string
      */
-    private String getUrl() throws IOException {
+    String getUrl() {
+        return getUrl(Collections.emptySet());
+    }
+
+    /**
+     * Get URL string for a page of this request, replacing the offset and limit query parameters of this request, if any.
+     *
+     * @param offset the offset of the first entity of the page
+     * @param limit  the number of entities per page
+     * @return the string URL
+     */
+    String getPageUrl(int offset, int limit) {
+        return getUrl(PAGE_PARAMETERS) + "&offset=" + offset + "&limit=" + limit;
+    }
+
+    private String getUrl(Set<String> excludedParameters) {
         StringBuilder urlBuilder = new StringBuilder(config.getBaseApiUrl()).append(restPath);
 
-        String queryParamJson = JSON.writerWithView(getClass()).writeValueAsString(this);
-        String queryParamString = JSON.readValue(queryParamJson, QueryParameterString.class).toString();
+        QueryParameterString queryParameters = new QueryParameterString();
+        QueryParameterEncoder.forClass(getClass()).encode(this, queryParameters, excludedParameters);
+        String queryParamString = queryParameters.toString();
         if (!queryParamString.isEmpty()) {
             urlBuilder.append("&").append(queryParamString);
         }
@@ -152,6 +171,16 @@ public abstract class Request<T> {
         return null;
     }
 
+    /**
+     * Override this method when the content should be serialized with the view of another request, for e.g. a bulk
+     * update which sends the fields of a single case update.
+     *
+     * @return the JSON view for the content
+     */
+    Class<?> getContentView() {
+        return getClass();
+    }
+
     /**
      * Override this method to provide supplementary information to deserializer.
      *
@@ -161,104 +190,245 @@ public abstract class Request<T> {
         return null;
     }
 
+    /**
+     * Override this method to serve the response of this request from the metadata cache of the client, if enabled. Only
+     * GET requests for metadata which rarely changes should be cached.
+     *
+     * @return whether the response can be cached
+     * @see TestRail.Builder#metadataCache(Duration, long)
+     */
+    boolean isCacheable() {
+        return false;
+    }
+
+    /**
+     * Override this method to drop the metadata cache of the client after this request, since it changes metadata which
+     * might be cached.
+     *
+     * @return whether the request changes cached metadata
+     */
+    boolean invalidatesMetadata() {
+        return false;
+    }
+
+    /**
+     * Get a copy of this request marked as safe to be sent again when TestRail rejects it for overload or the connection
+     * fails. GET requests are always retried, while other requests are only retried when marked, since for e.g. sending
+     * an add request again after a connection failure can create a duplicate.
+     *
+     * @return a copy of this request marked as retry safe
+     * @see TestRail.Builder#retries(int, Duration, Duration)
+     */
+    public Request<T> withRetrySafe() {
+        return copyWith(copy -> copy.retrySafe = true);
+    }
+
+    /**
+     * Get a copy of this request with a change applied, for the {@code with*} methods. The copy shares the values of
+     * this request, so the change must replace values rather than modify them.
+     *
+     * @param change the change to apply to the copy
+     * @param <R>    the type of this request
+     * @return the changed copy
+     */
+    @SuppressWarnings("unchecked")
+    <R extends Request<T>> R copyWith(Consumer<R> change) {
+        R copy;
+        try {
+            copy = (R) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e);
+        }
+        change.accept(copy);
+        return copy;
+    }
+
     /**
      * Execute this request.
+     * <p>For paginated responses all pages are fetched and concatenated into a single list.</p>
      *
      * @return response from TestRail
      */
     public T execute() {
+        if (method == Method.GET) {
+            return isCacheable() ? config.getMetadataCache().get(getUrl(), this::fetchCoalesced) : fetchCoalesced();
+        }
         try {
-
-            String url = getUrl();
-            HttpURLConnection con = (HttpURLConnection) urlConnectionFactory.getUrlConnection(url);
-            con.setRequestMethod(method.name());
-            if (config.getApplicationName().isPresent()) {
-                con.setRequestProperty("User-Agent", config.getApplicationName().get());
+            return fetch();
+        } finally {
+            if (invalidatesMetadata()) {
+                config.getMetadataCache().invalidateAll();
             }
-            con.setRequestProperty("Content-Type", "application/json");
-            String basicAuth = "Basic "
-                    + DatatypeConverter.printBase64Binary((config.getUsername()
-                    + ":" + config.getPassword()).getBytes(Charset.forName("UTF-8")));
-            con.setRequestProperty("Authorization", basicAuth);
-            if (method == Method.POST) {
-                con.setDoOutput(true);
-                Object content = getContent();
-                if (content != null) {
-                    try (OutputStream outputStream = new BufferedOutputStream(con.getOutputStream())) {
-                        JSON.writerWithView(this.getClass()).writeValue(outputStream, content);
-                    }
-                } else {
-                    con.setFixedLengthStreamingMode(0);
-                }
-            }
-            log.debug("Sending " + method + " request to URL : " + url);
-            int responseCode = 0;
-            try {
-                responseCode = con.getResponseCode();
-            } catch (IOException e) {
-                // swallow it since for 401 getResponseCode throws an IOException
-                responseCode = con.getResponseCode();
-            }
-            log.debug("Response Code : " + responseCode);
+        }
+    }
 
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                try (InputStream errorStream = con.getErrorStream()) {
-                    TestRailException.Builder exceptionBuilder = new TestRailException.Builder().setResponseCode(responseCode);
-                    if (errorStream == null) {
-                        throw exceptionBuilder.setError("<server did not send any error message>").build();
-                    }
-                    throw JSON.readerForUpdating(exceptionBuilder).<TestRailException.Builder>readValue(new BufferedInputStream(errorStream)).build();
+    private T fetchCoalesced() {
+        if (!config.getSingleFlight().isEnabled()) {
+            return fetch();
+        }
+        // the response depends on the URL, the response type and the supplement for deserialization
+        return config.getSingleFlight().execute(Arrays.asList(getUrl(),
+                responseClass != null ? responseClass : responseType.getType(), getSupplementForDeserialization()), this::fetch);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T fetch() {
+        if (pageType == null) {
+            return execute(getUrl(), this::readResponse);
+        }
+        Iterator<Page<T>> pages = pages();
+        T first = pages.next().objects;
+        if (!pages.hasNext()) {
+            return first;
+        }
+        List<Object> objects = new ArrayList<>((List<?>) first);
+        while (pages.hasNext()) {
+            objects.addAll((List<?>) pages.next().objects);
+        }
+        // only list requests have a page type, so the objects of a page and T are lists of the same elements
+        return (T) objects;
+    }
+
+    /**
+     * Execute this request asynchronously on the executor of the {@link TestRail} client, which defaults to a virtual
+     * thread per request. Requests wait for their turn when the client already has the maximum number of concurrent
+     * requests in flight.
+     *
+     * @return a future completed with the response from TestRail, or exceptionally with the error of {@link #execute()}
+     */
+    public CompletableFuture<T> executeAsync() {
+        return CompletableFuture.supplyAsync(this::execute, config.getExecutor());
+    }
+
+    /**
+     * Get the pages of this request. A page is fetched only when it is requested from the iterator, as long as the
+     * {@code _links.next} of the previous page shows that there are more. A response which is not paginated is returned as
+     * a single page.
+     *
+     * @return an iterator over the pages of the response
+     */
+    Iterator<Page<T>> pages() {
+        checkState(pageType != null, "%s is not a list request", getClass().getSimpleName());
+        return new AbstractIterator<Page<T>>() {
+            private String nextUrl = getUrl();
+
+            @Override
+            protected Page<T> computeNext() {
+                if (nextUrl == null) {
+                    return endOfData();
                 }
+                Page<T> page = fetchPage(nextUrl);
+                nextUrl = hasNextPage(page) ? getPageUrl(page.offset + page.size, page.limit) : null;
+                return page;
             }
+        };
+    }
 
-            try (InputStream responseStream = new BufferedInputStream(con.getInputStream())) {
-                Object supplementForDeserialization = getSupplementForDeserialization();
-                if (responseClass != null) {
-                    if (responseClass == Void.class) {
-                        return null;
-                    }
-                    if (supplementForDeserialization != null) {
-                        return JSON.reader(responseClass).with(new InjectableValues.Std().addValue(responseClass.toString(), supplementForDeserialization)).readValue(responseStream);
-                    }
-                    return JSON.readValue(responseStream, responseClass);
-                } else {
-                    String payload = new String(ByteStreams.toByteArray(responseStream), Charsets.UTF_8).replace("\"_links\":", "\"links\":");
-                    if (((ParameterizedType) responseType.getType()).getRawType().getTypeName().equals("java.util.List")
-                            && payload.contains("\"offset\":") && payload.contains("\"limit\":") && payload.contains("\"offset\":")) {
-                        Matcher matcher = Pattern.compile("get_([^\\_/]+)").matcher(restPath);
-                        if (matcher.find())
-                            PageDeserializer.field = matcher.group(1);
-                        try {
-                            PageDeserializer.type = Class.forName(((ParameterizedType) responseType.getType()).getActualTypeArguments()[0].getTypeName());
-                        }
-                        catch(Exception e) {
-                            return ((T)new ArrayList());
+    /**
+     * Fetch the first page of this request, or the whole response if it is not paginated.
+     *
+     * @return the page
+     */
+    Page<T> fetchFirstPage() {
+        return fetchPage(getUrl());
+    }
+
+    /**
+     * Fetch a page of this request on the executor of the {@link TestRail} client. Cancelling the future with interruption
+     * stops the request and frees its place within the concurrency limit.
+     *
+     * @param offset the offset of the first entity of the page
+     * @param limit  the number of entities per page
+     * @return a future completed with the page
+     */
+    Future<Page<T>> fetchPageAsync(int offset, int limit) {
+        String url = getPageUrl(offset, limit);
+        FutureTask<Page<T>> page = new FutureTask<>(() -> fetchPage(url));
+        config.getExecutor().execute(page);
+        return page;
+    }
+
+    /**
+     * Whether TestRail has more entities after a page.
+     *
+     * @param page the page
+     * @return {@code true} if the page links to a next page
+     */
+    static boolean hasNextPage(Page<?> page) {
+        return page.links != null && page.links.next != null;
+    }
+
+    private Page<T> fetchPage(String url) {
+        return execute(url, this::readPage);
+    }
+
+    private <R> R execute(String url, ResponseReader<R> responseReader) {
+        try {
+
+            byte[] body = getBody();
+            Compression compression = config.getCompression();
+            TransportRequest request = compression.shouldCompress(body)
+                    ? new TransportRequest(method.name(), url, getHeaders(compression.getRequestEncoding()), compression.compress(body))
+                    : new TransportRequest(method.name(), url, getHeaders(null), body);
+            Throttle throttle = config.getThrottle();
+            Duration retryDelay = Duration.ZERO;
+            for (int retries = 0; ; retries++) {
+                long generation;
+                try {
+                    Thread.sleep(retryDelay);
+                    generation = throttle.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting to send request to " + url);
+                }
+                // the response is read while the permit is held, since the connection is busy until then
+                try {
+                    log.debug("Sending " + method + " request to URL : " + url);
+                    TransportResponse response;
+                    try {
+                        response = config.getTransport().send(request);
+                    } catch (IOException e) {
+                        // timeouts are InterruptedIOExceptions too, so only an interrupt of this thread stops retries
+                        if (Thread.currentThread().isInterrupted() || !isRetrySafe() || !throttle.canRetry(retries)) {
+                            throw e;
                         }
-                        if (supplementForDeserialization != null) {
-                            PageDeserializer.supplement = supplementForDeserialization;
+                        log.debug("Retrying " + method + " request to URL : " + url + " after " + e);
+                        retryDelay = throttle.getBackoff(retries);
+                        continue;
+                    }
+                    try (response) {
+                        int responseCode = response.getStatusCode();
+                        log.debug("Response Code : " + responseCode);
+
+                        if (responseCode == HttpURLConnection.HTTP_OK) {
+                            throttle.onSuccess();
+                            try (InputStream responseStream = decode(response)) {
+                                return responseReader.read(responseStream);
+                            }
                         }
-                        Page<T> page = JSON.readValue(payload, pageType);
-                        if (page._links.next != null) {
-                            restPath = page._links.next.replace(this.apiSegment, "");
-                            T concat = execute();
-                            T models = page.objects;
-                            ((List)models).addAll(((List)concat));
-                            return models;
+                        if (responseCode == HTTP_UNSUPPORTED_MEDIA_TYPE && request.getBody() != body) {
+                            // the server does not accept compressed bodies, so send this one and all later ones as they are
+                            log.debug("Sending " + method + " request to URL : " + url + " again without compression");
+                            compression.onRequestCompressionRejected();
+                            request = new TransportRequest(method.name(), url, getHeaders(null), body);
+                            retryDelay = Duration.ZERO;
+                            retries--;
+                            continue;
                         }
-                        else
-                            return page.objects;
-                    }
-                    else if (supplementForDeserialization != null) {
-                        String supplementKey = responseType.getType().toString();
-                        if (responseType.getType() instanceof ParameterizedType) {
-                            Type[] actualTypes = ((ParameterizedType) responseType.getType()).getActualTypeArguments();
-                            if (actualTypes.length == 1 && actualTypes[0] instanceof Class<?>) {
-                                supplementKey = actualTypes[0].toString();
+                        if (responseCode == HTTP_TOO_MANY_REQUESTS || responseCode == HttpURLConnection.HTTP_UNAVAILABLE) {
+                            throttle.onOverload(generation, response.getHeader("Retry-After").flatMap(Throttle::parseRetryAfter));
+                            if (isRetrySafe() && throttle.canRetry(retries)) {
+                                log.debug("Retrying " + method + " request to URL : " + url + " after response code " + responseCode);
+                                retryDelay = throttle.getBackoff(retries);
+                                continue;
                             }
                         }
-                        return JSON.reader(responseType).with(new InjectableValues.Std().addValue(supplementKey, supplementForDeserialization)).readValue(payload);
+                        try (InputStream errorStream = decode(response)) {
+                            throw readException(responseCode, errorStream);
+                        }
                     }
-                    return JSON.readValue(payload, responseType);
+                } finally {
+                    throttle.release();
                 }
             }
 
@@ -269,13 +439,90 @@ public abstract class Request<T> {
         }
     }
 
+    private boolean isRetrySafe() {
+        return method == Method.GET || retrySafe;
+    }
+
+    private Map<String, String> getHeaders(String contentEncoding) {
+        ImmutableMap.Builder<String, String> headers = ImmutableMap.builder();
+        if (config.getApplicationName().isPresent()) {
+            headers.put("User-Agent", config.getApplicationName().get());
+        }
+        headers.put("Content-Type", "application/json");
+        if (contentEncoding != null) {
+            headers.put("Content-Encoding", contentEncoding);
+        }
+        config.getCompression().getAcceptEncoding().ifPresent(acceptEncoding -> headers.put("Accept-Encoding", acceptEncoding));
+        headers.put("Authorization", config.getAuthorization());
+        return headers.build();
+    }
+
+    private static InputStream decode(TransportResponse response) throws IOException {
+        return Compression.decode(response.getHeader("Content-Encoding"), response.getBody());
+    }
+
+    private byte[] getBody() throws IOException {
+        if (method != Method.POST) {
+            return null;
+        }
+        Object content = getContent();
+        return content == null ? null : JSON.writerWithView(getContentView()).writeValueAsBytes(content);
+    }
+
+    private TestRailException readException(int responseCode, InputStream errorStream) throws IOException {
+        TestRailException.Builder exceptionBuilder = new TestRailException.Builder().setResponseCode(responseCode);
+        byte[] error = ByteStreams.toByteArray(errorStream);
+        if (error.length == 0) {
+            return exceptionBuilder.setError("<server did not send any error message>").build();
+        }
+        return JSON.readerForUpdating(exceptionBuilder).<TestRailException.Builder>readValue(error).build();
+    }
+
+    private T readResponse(InputStream responseStream) throws IOException {
+        if (responseClass == Void.class) {
+            return null;
+        }
+        ObjectReader reader = responseClass != null ? JSON.readerFor(responseClass) : JSON.readerFor(responseType);
+        return withSupplement(reader).readValue(responseStream);
+    }
+
+    private Page<T> readPage(InputStream responseStream) throws IOException {
+        try (JsonParser parser = JSON.createParser(responseStream)) {
+            // TestRail wraps a list into a page object only when it paginates it
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                return withSupplement(JSON.readerFor(pageType)).readValue(parser);
+            }
+            Page<T> page = new Page<>();
+            page.objects = withSupplement(JSON.readerFor(responseType)).readValue(parser);
+            return page;
+        }
+    }
+
     /**
-     * Set URL connection factory. Only used for testing.
+     * Make the supplement for deserialization, if any, available to the deserializers of the response entities. It is
+     * keyed by the entity class, which is either the response class or the element class of a list response.
      *
-     * @param urlConnectionFactory the URL connection factory
+     * @param reader the reader for the response
+     * @return the reader with the supplement injected
      */
-    void setUrlConnectionFactory(UrlConnectionFactory urlConnectionFactory) {
-        this.urlConnectionFactory = urlConnectionFactory;
+    private ObjectReader withSupplement(ObjectReader reader) {
+        Object supplementForDeserialization = getSupplementForDeserialization();
+        if (supplementForDeserialization == null) {
+            return reader;
+        }
+        String supplementKey;
+        if (responseClass != null) {
+            supplementKey = responseClass.toString();
+        } else {
+            supplementKey = responseType.getType().toString();
+            if (responseType.getType() instanceof ParameterizedType) {
+                Type[] actualTypes = ((ParameterizedType) responseType.getType()).getActualTypeArguments();
+                if (actualTypes.length == 1 && actualTypes[0] instanceof Class<?>) {
+                    supplementKey = actualTypes[0].toString();
+                }
+            }
+        }
+        return reader.with(new InjectableValues.Std().addValue(supplementKey, supplementForDeserialization));
     }
 
     /**
@@ -285,4 +532,11 @@ public abstract class Request<T> {
         GET, POST;
     }
 
+    /**
+     * Reader of a successful response body.
+     */
+    private interface ResponseReader<R> {
+        R read(InputStream responseStream) throws IOException;
+    }
+
 }
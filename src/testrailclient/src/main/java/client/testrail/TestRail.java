@@ -24,11 +24,22 @@
 
 package client.testrail;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import client.testrail.internal.BooleanToIntSerializer;
 import client.testrail.internal.ListToCsvSerializer;
+import client.testrail.internal.Compression;
+import client.testrail.internal.MetadataCache;
+import client.testrail.internal.SingleFlight;
+import client.testrail.internal.Throttle;
+import client.testrail.internal.TokenBucket;
 import client.testrail.model.Case;
 import client.testrail.model.CaseField;
+import client.testrail.model.CaseFieldSchema;
+import client.testrail.model.CaseTable;
 import client.testrail.model.CaseType;
 import client.testrail.model.Configuration;
 import client.testrail.model.Page;
@@ -36,15 +47,22 @@ import client.testrail.model.Priority;
 import client.testrail.model.Project;
 import client.testrail.model.Section;
 import client.testrail.model.Suite;
+import client.testrail.transport.Transport;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
 import com.fasterxml.jackson.annotation.JsonView;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import lombok.experimental.Accessors;
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -145,18 +163,70 @@ public class TestRail {
         return new Priorities();
     }
 
+    /**
+     * Get the hit and miss counts of the metadata cache. Requests which wait for a fetch of the same response already in
+     * progress count as misses.
+     *
+     * @return the statistics, all zero if the cache is not enabled
+     * @see Builder#metadataCache(Duration, long)
+     */
+    public CacheStats metadataCacheStats() {
+        return config.getMetadataCache().stats();
+    }
+
+    /**
+     * Drop all responses from the metadata cache, for e.g. after custom case fields were changed in TestRail.
+     *
+     * @see Builder#metadataCache(Duration, long)
+     */
+    public void invalidateMetadataCache() {
+        config.getMetadataCache().invalidateAll();
+    }
+
+    private static Date copyOf(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+
+    private static <E> java.util.List<E> copyOf(java.util.List<E> list) {
+        return list == null ? null : ImmutableList.copyOf(list);
+    }
+
     /**
      * Builder for {@code TestRail}.
      */
     public static class Builder {
 
         private static final String DEFAULT_BASE_API_PATH = "index.php?/api/v2/";
+        private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(30);
+        private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofMinutes(2);
+        private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 16;
+        private static final int DEFAULT_MAX_RETRIES = 3;
+        private static final Duration DEFAULT_INITIAL_BACKOFF = Duration.ofSeconds(1);
+        private static final Duration DEFAULT_MAX_BACKOFF = Duration.ofSeconds(30);
+        private static final int DEFAULT_BULK_SIZE = 250;
 
         private final String endPoint;
         private final String username;
         private final String password;
         private String apiPath;
         private String applicationName;
+        private Transport transport;
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private Duration readTimeout = DEFAULT_READ_TIMEOUT;
+        private Executor executor;
+        private int maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+        private boolean adaptiveConcurrency = true;
+        private double requestsPerSecond;
+        private int burst;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private Duration initialBackoff = DEFAULT_INITIAL_BACKOFF;
+        private Duration maxBackoff = DEFAULT_MAX_BACKOFF;
+        private Duration metadataTtl;
+        private long metadataCacheSize;
+        private boolean coalesceRequests;
+        private boolean acceptCompressedResponses = true;
+        private int minimumCompressedRequestSize;
+        private int bulkSize = DEFAULT_BULK_SIZE;
 
         /**
          * @param endPoint the URL end point where your TestRail is hosted, for e.g. https://example.com/testrail
@@ -205,13 +275,219 @@ public class TestRail {
             return this;
         }
 
+        /**
+         * Set the transport used to send requests to TestRail.
+         * <p>By default a transport backed by a shared {@link java.net.http.HttpClient} is used, which keeps connections alive
+         * and multiplexes requests over HTTP/2 when the server supports it. Use {@link Transport#urlConnection(Duration, Duration)}
+         * to open a new connection per request instead. Timeouts set on this builder are ignored when a transport is set.</p>
+         *
+         * @param transport the transport
+         * @return this for chaining
+         * @throws NullPointerException if transport is null
+         */
+        public Builder transport(@NonNull final Transport transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Set the timeout to establish a connection with TestRail. Defaults to 30 seconds.
+         *
+         * @param connectTimeout the connect timeout
+         * @return this for chaining
+         * @throws NullPointerException if connectTimeout is null
+         */
+        public Builder connectTimeout(@NonNull final Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Set the timeout to wait for a response from TestRail. Defaults to 2 minutes.
+         *
+         * @param readTimeout the read timeout
+         * @return this for chaining
+         * @throws NullPointerException if readTimeout is null
+         */
+        public Builder readTimeout(@NonNull final Duration readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Set the executor which runs requests executed with {@link Request#executeAsync()}.
+         * <p>By default each request runs on a new virtual thread, which is cheap since requests spend nearly all of their time
+         * waiting for TestRail.</p>
+         *
+         * @param executor the executor
+         * @return this for chaining
+         * @throws NullPointerException if executor is null
+         */
+        public Builder executor(@NonNull final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the maximum number of requests in flight to TestRail at the same time, whether executed synchronously or
+         * asynchronously. Further requests wait until one of them completes. Defaults to 16.
+         *
+         * @param maxConcurrentRequests the maximum number of concurrent requests
+         * @return this for chaining
+         * @throws IllegalArgumentException if maxConcurrentRequests is not positive
+         */
+        public Builder maxConcurrentRequests(final int maxConcurrentRequests) {
+            checkArgument(maxConcurrentRequests > 0, "maxConcurrentRequests should be positive");
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        /**
+         * Set whether the concurrency limit adapts to the load of TestRail. When enabled, which is the default, the limit is
+         * halved whenever TestRail rejects a request with 429 (Too Many Requests) or 503 (Service Unavailable) and grows back
+         * by one request at a time, up to {@link #maxConcurrentRequests(int)}, as requests succeed.
+         *
+         * @param adaptiveConcurrency whether the concurrency limit adapts
+         * @return this for chaining
+         */
+        public Builder adaptiveConcurrency(final boolean adaptiveConcurrency) {
+            this.adaptiveConcurrency = adaptiveConcurrency;
+            return this;
+        }
+
+        /**
+         * Limit the rate of requests sent to TestRail, for e.g. to stay within the rate limit of TestRail Cloud. Bursts of up
+         * to {@code burst} requests are sent at once after a quiet period. There is no rate limit by default.
+         *
+         * @param requestsPerSecond the sustained number of requests per second
+         * @param burst             the maximum number of requests sent at once
+         * @return this for chaining
+         * @throws IllegalArgumentException if any argument is not positive
+         */
+        public Builder rateLimit(final double requestsPerSecond, final int burst) {
+            checkArgument(requestsPerSecond > 0, "requestsPerSecond should be positive");
+            checkArgument(burst > 0, "burst should be positive");
+            this.requestsPerSecond = requestsPerSecond;
+            this.burst = burst;
+            return this;
+        }
+
+        /**
+         * Set how often a request is sent again when TestRail rejects it with 429 (Too Many Requests) or 503 (Service
+         * Unavailable), or when the connection fails. Only GET requests and requests marked with {@link Request#withRetrySafe()}
+         * are retried. Defaults to 3.
+         * <p>Each retry waits for the {@code Retry-After} time sent by TestRail, which pauses all requests of this client,
+         * and for a random delay up to a bound which doubles with every retry, from 1 second up to 30 seconds by default.</p>
+         *
+         * @param maxRetries     the maximum number of retries of a request, zero to disable retries
+         * @param initialBackoff the bound of the random delay before the first retry
+         * @param maxBackoff     the maximum bound of the random delay before a retry
+         * @return this for chaining
+         * @throws IllegalArgumentException if maxRetries is negative
+         * @throws NullPointerException     if any other argument is null
+         */
+        public Builder retries(final int maxRetries, @NonNull final Duration initialBackoff, @NonNull final Duration maxBackoff) {
+            checkArgument(maxRetries >= 0, "maxRetries should not be negative");
+            this.maxRetries = maxRetries;
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Cache the responses of requests for metadata which rarely changes: case fields, case types, configurations,
+         * priorities, and single projects and suites. The cache is dropped whenever a project or suite is added, updated
+         * or deleted through this client, and can be dropped with {@link TestRail#invalidateMetadataCache()}. There is no
+         * cache by default.
+         * <p>Cached responses are shared by all requests, so do not modify them.</p>
+         *
+         * @param ttl         how long a response is served from the cache after it was fetched
+         * @param maximumSize the maximum number of responses in the cache
+         * @return this for chaining
+         * @throws IllegalArgumentException if any argument is not positive
+         * @throws NullPointerException     if ttl is null
+         */
+        public Builder metadataCache(@NonNull final Duration ttl, final long maximumSize) {
+            checkArgument(ttl.compareTo(Duration.ZERO) > 0, "ttl should be positive");
+            checkArgument(maximumSize > 0, "maximumSize should be positive");
+            this.metadataTtl = ttl;
+            this.metadataCacheSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Set whether identical GET requests in flight at the same time share one call to TestRail. A request waits for the
+         * response of an identical request which is in flight, instead of sending its own, when both have the same URL,
+         * response type and case field schema. Useful when the client is used from parallel pipelines which often ask for
+         * the same section or suite at the same moment. Disabled by default.
+         * <p>The shared response is returned to all of the requests, so do not modify it.</p>
+         *
+         * @param coalesceRequests whether identical GET requests are coalesced
+         * @return this for chaining
+         */
+        public Builder coalesceRequests(final boolean coalesceRequests) {
+            this.coalesceRequests = coalesceRequests;
+            return this;
+        }
+
+        /**
+         * Set whether TestRail is asked for gzip or deflate compressed responses, which are decompressed while they are
+         * read. Large lists of cases are often a tenth of their size when compressed, which matters on slow links. Enabled
+         * by default.
+         *
+         * @param acceptCompressedResponses whether compressed responses are accepted
+         * @return this for chaining
+         */
+        public Builder acceptCompressedResponses(final boolean acceptCompressedResponses) {
+            this.acceptCompressedResponses = acceptCompressedResponses;
+            return this;
+        }
+
+        /**
+         * Send POST bodies of at least {@code minimumSize} bytes gzip compressed, for e.g. bulk updates of many cases. The
+         * web server in front of TestRail must accept compressed request bodies; once it rejects one with 415 (Unsupported
+         * Media Type), the request is sent again uncompressed and no later bodies are compressed. Disabled by default.
+         *
+         * @param minimumSize the size in bytes from which bodies are compressed
+         * @return this for chaining
+         * @throws IllegalArgumentException if minimumSize is not positive
+         */
+        public Builder compressRequests(final int minimumSize) {
+            checkArgument(minimumSize > 0, "minimumSize should be positive");
+            this.minimumCompressedRequestSize = minimumSize;
+            return this;
+        }
+
+        /**
+         * Set the most test case IDs sent in one request of a bulk update, delete or move, larger collections are split
+         * into several requests. TestRail does not document a limit for these requests, but the web server in front of
+         * it usually limits the size of request bodies and a single request over thousands of cases can run into the
+         * server's timeouts. Defaults to 250.
+         *
+         * @param bulkSize the most test case IDs in one request
+         * @return this for chaining
+         * @throws IllegalArgumentException if bulkSize is not positive
+         */
+        public Builder bulkSize(final int bulkSize) {
+            checkArgument(bulkSize > 0, "bulkSize should be positive");
+            this.bulkSize = bulkSize;
+            return this;
+        }
+
         /**
          * Build an instance of {@code TestRail}.
          *
          * @return a new instance
          */
         public TestRail build() {
-            return new TestRail(new TestRailConfig(endPoint + apiPath, username, password, applicationName));
+            Transport requestTransport = transport != null ? transport : Transport.httpClient(connectTimeout, readTimeout);
+            Executor requestExecutor = executor != null ? executor : Executors.newVirtualThreadPerTaskExecutor();
+            TokenBucket tokenBucket = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, burst) : null;
+            Throttle throttle = new Throttle(maxConcurrentRequests, adaptiveConcurrency, tokenBucket, maxRetries, initialBackoff, maxBackoff);
+            MetadataCache metadataCache = metadataTtl != null ? MetadataCache.create(metadataTtl, metadataCacheSize) : MetadataCache.disabled();
+            return new TestRail(new TestRailConfig(endPoint + apiPath, username, password, applicationName, requestTransport,
+                    requestExecutor, throttle, metadataCache, coalesceRequests ? SingleFlight.create() : SingleFlight.disabled(),
+                    Compression.create(acceptCompressedResponses, minimumCompressedRequestSize), bulkSize));
         }
     }
 
@@ -282,11 +558,15 @@ public class TestRail {
             private Get(int projectId) {
                 super(config, Method.GET, REST_PATH + projectId, Project.class);
             }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
         }
 
         @Getter
-        @Setter
-        public class List extends Request<java.util.List<Project>> {
+        public class List extends PaginatedRequest<Project> {
             private static final String REST_PATH = "get_projects";
 
             @JsonView(List.class)
@@ -297,6 +577,15 @@ public class TestRail {
                 super(config, Method.GET, REST_PATH, new TypeReference<java.util.List<Project>>() {
                 }, new TypeReference<Page<java.util.List<Project>>>(){});
             }
+
+            public List withIsCompleted(Boolean isCompleted) {
+                return copyWith(copy -> copy.isCompleted = isCompleted);
+            }
+
+            @Override
+            public List withPrefetch(int pages) {
+                return (List) super.withPrefetch(pages);
+            }
         }
 
         public class Add extends Request<Project> {
@@ -309,6 +598,11 @@ public class TestRail {
                 this.project = project;
             }
 
+            @Override
+            protected boolean invalidatesMetadata() {
+                return true;
+            }
+
             @Override
             protected Object getContent() {
                 return project;
@@ -326,6 +620,11 @@ public class TestRail {
                 this.project = project;
             }
 
+            @Override
+            protected boolean invalidatesMetadata() {
+                return true;
+            }
+
             @Override
             protected Object getContent() {
                 return project;
@@ -340,6 +639,11 @@ public class TestRail {
                 super(config, Method.POST, REST_PATH + projectId, Void.class);
             }
 
+            @Override
+            protected boolean invalidatesMetadata() {
+                return true;
+            }
+
         }
     }
 
@@ -361,8 +665,21 @@ public class TestRail {
          * @throws NullPointerException     if caseFields is null
          */
         public Get get(final int testCaseId, @NonNull java.util.List<CaseField> caseFields) {
+            return get(testCaseId, CaseFieldSchema.of(caseFields));
+        }
+
+        /**
+         * Returns an existing test case.
+         *
+         * @param testCaseId      the ID of the test case
+         * @param caseFieldSchema the schema of the custom case fields configured in TestRail to get type information for custom fields in the test case returned
+         * @return the request
+         * @throws IllegalArgumentException if testCaseId is not positive
+         * @throws NullPointerException     if caseFieldSchema is null
+         */
+        public Get get(final int testCaseId, @NonNull CaseFieldSchema caseFieldSchema) {
             checkArgument(testCaseId > 0, "testCaseId should be positive");
-            return new Get(testCaseId, caseFields);
+            return new Get(testCaseId, caseFieldSchema);
         }
 
         /**
@@ -377,8 +694,21 @@ public class TestRail {
          * @throws NullPointerException     if caseFields is null
          */
         public List list(final int projectId, @NonNull java.util.List<CaseField> caseFields) {
+            return list(projectId, CaseFieldSchema.of(caseFields));
+        }
+
+        /**
+         * Returns the list of available test cases.
+         *
+         * @param projectId       the ID of the project which is operating in a single suite mode
+         * @param caseFieldSchema the schema of the custom case fields configured in TestRail to get type information for custom fields in the test cases returned
+         * @return the request
+         * @throws IllegalArgumentException if projectId is not positive
+         * @throws NullPointerException     if caseFieldSchema is null
+         */
+        public List list(final int projectId, @NonNull CaseFieldSchema caseFieldSchema) {
             checkArgument(projectId > 0, "projectId should be positive");
-            return new List(projectId, caseFields);
+            return new List(projectId, caseFieldSchema);
         }
 
         /**
@@ -394,9 +724,23 @@ public class TestRail {
          * @throws NullPointerException     if caseFields is null
          */
         public List list(final int projectId, final int suiteId, @NonNull java.util.List<CaseField> caseFields) {
+            return list(projectId, suiteId, CaseFieldSchema.of(caseFields));
+        }
+
+        /**
+         * Returns the list of available test cases.
+         *
+         * @param projectId       the ID of the project
+         * @param suiteId         the ID of the suite
+         * @param caseFieldSchema the schema of the custom case fields configured in TestRail to get type information for custom fields in the test cases returned
+         * @return the request
+         * @throws IllegalArgumentException if any argument is not positive
+         * @throws NullPointerException     if caseFieldSchema is null
+         */
+        public List list(final int projectId, final int suiteId, @NonNull CaseFieldSchema caseFieldSchema) {
             checkArgument(projectId > 0, "projectId should be positive");
             checkArgument(suiteId > 0, "suiteId should be positive");
-            return new List(projectId, suiteId, caseFields);
+            return new List(projectId, suiteId, caseFieldSchema);
         }
 
         /**
@@ -412,8 +756,22 @@ public class TestRail {
          * @throws NullPointerException     if any other argument is null
          */
         public Add add(final int sectionId, @NonNull Case testCase, @NonNull java.util.List<CaseField> caseFields) {
+            return add(sectionId, testCase, CaseFieldSchema.of(caseFields));
+        }
+
+        /**
+         * Creates a new test case.
+         *
+         * @param sectionId       the ID of the section to add the test case to
+         * @param testCase        the test case to be added
+         * @param caseFieldSchema the schema of the custom case fields configured in TestRail to get type information for custom fields in the test case returned
+         * @return the request
+         * @throws IllegalArgumentException if sectionId is not positive
+         * @throws NullPointerException     if any other argument is null
+         */
+        public Add add(final int sectionId, @NonNull Case testCase, @NonNull CaseFieldSchema caseFieldSchema) {
             checkArgument(sectionId > 0, "projectId should be positive");
-            return new Add(sectionId, testCase, caseFields);
+            return new Add(sectionId, testCase, caseFieldSchema);
         }
 
         /**
@@ -427,7 +785,19 @@ public class TestRail {
          * @throws NullPointerException if any argument is null
          */
         public Update update(@NonNull Case testCase, @NonNull java.util.List<CaseField> caseFields) {
-            return new Update(testCase, caseFields);
+            return update(testCase, CaseFieldSchema.of(caseFields));
+        }
+
+        /**
+         * Updates an existing test case. Partial updates are supported, i.e. you can set and update specific fields only.
+         *
+         * @param testCase        the test case to be updated
+         * @param caseFieldSchema the schema of the custom case fields configured in TestRail to get type information for custom fields in the test case returned
+         * @return the request
+         * @throws NullPointerException if any argument is null
+         */
+        public Update update(@NonNull Case testCase, @NonNull CaseFieldSchema caseFieldSchema) {
+            return new Update(testCase, caseFieldSchema);
         }
 
         /**
@@ -442,33 +812,88 @@ public class TestRail {
             return new Delete(testCaseId);
         }
 
+        /**
+         * Updates multiple test cases of a suite with the same values, in requests of at most {@link Builder#bulkSize(int)}
+         * IDs. Only the fields which can be set with {@link #update(Case, CaseFieldSchema)} are sent, so set only the fields
+         * to change. The template cannot be changed this way, the template ID of {@code changes} is never sent.
+         *
+         * @param suiteId     the ID of the suite of the test cases
+         * @param testCaseIds the IDs of the test cases to be updated
+         * @param changes     the values to set on all the test cases
+         * @return the request
+         * @throws IllegalArgumentException if suiteId is not positive
+         * @throws NullPointerException     if any other argument is null
+         */
+        public BulkRequest<BulkUpdate> updateAll(final int suiteId, @NonNull Collection<Integer> testCaseIds, @NonNull Case changes) {
+            checkArgument(suiteId > 0, "suiteId should be positive");
+            return new BulkRequest<>(Lists.transform(partition(testCaseIds), chunk -> new BulkUpdate(suiteId, chunk, changes)));
+        }
+
+        /**
+         * Deletes multiple test cases of a suite, in requests of at most {@link Builder#bulkSize(int)} IDs.
+         *
+         * @param suiteId     the ID of the suite of the test cases
+         * @param testCaseIds the IDs of the test cases to be deleted
+         * @return the request
+         * @throws IllegalArgumentException if suiteId is not positive
+         * @throws NullPointerException     if testCaseIds is null
+         */
+        public BulkRequest<BulkDelete> deleteAll(final int suiteId, @NonNull Collection<Integer> testCaseIds) {
+            checkArgument(suiteId > 0, "suiteId should be positive");
+            return new BulkRequest<>(Lists.transform(partition(testCaseIds), chunk -> new BulkDelete(suiteId, chunk)));
+        }
+
+        /**
+         * Moves multiple test cases to a section, in requests of at most {@link Builder#bulkSize(int)} IDs.
+         *
+         * @param sectionId   the ID of the section to move the test cases to
+         * @param suiteId     the ID of the suite of the section
+         * @param testCaseIds the IDs of the test cases to be moved
+         * @return the request
+         * @throws IllegalArgumentException if sectionId or suiteId is not positive
+         * @throws NullPointerException     if testCaseIds is null
+         */
+        public BulkRequest<MoveToSection> moveToSection(final int sectionId, final int suiteId, @NonNull Collection<Integer> testCaseIds) {
+            checkArgument(sectionId > 0, "sectionId should be positive");
+            checkArgument(suiteId > 0, "suiteId should be positive");
+            return new BulkRequest<>(Lists.transform(partition(testCaseIds), chunk -> new MoveToSection(sectionId, suiteId, chunk)));
+        }
+
+        private java.util.List<java.util.List<Integer>> partition(Collection<Integer> testCaseIds) {
+            for (Integer testCaseId : testCaseIds) {
+                checkArgument(testCaseId != null && testCaseId > 0, "testCaseIds should be positive");
+            }
+            return Lists.partition(ImmutableList.copyOf(testCaseIds), config.getBulkSize());
+        }
+
         public class Get extends Request<Case> {
             private static final String REST_PATH = "get_case/";
 
-            private final java.util.List<CaseField> caseFields;
+            private final CaseFieldSchema caseFieldSchema;
 
-            private Get(int testCaseId, java.util.List<CaseField> caseFields) {
+            private Get(int testCaseId, CaseFieldSchema caseFieldSchema) {
                 super(config, Method.GET, REST_PATH + testCaseId, Case.class);
-                this.caseFields = caseFields;
+                this.caseFieldSchema = caseFieldSchema;
             }
 
             @Override
             protected Object getSupplementForDeserialization() {
-                return caseFields;
+                return caseFieldSchema;
             }
         }
 
         @Getter
-        @Setter
         @Accessors(fluent = true)
-        public class List extends Request<java.util.List<Case>> {
+        public class List extends PaginatedRequest<Case> {
             private static final String REST_PATH = "get_cases/%s&suite_id=%s";
-            private final java.util.List<CaseField> caseFields;
+            private final CaseFieldSchema caseFieldSchema;
             @JsonView(List.class)
             private Integer sectionId;
             @JsonView(List.class)
+            @Getter(AccessLevel.NONE)
             private Date createdAfter;
             @JsonView(List.class)
+            @Getter(AccessLevel.NONE)
             private Date createdBefore;
             @JsonView(List.class)
             @JsonSerialize(using = ListToCsvSerializer.class)
@@ -483,28 +908,115 @@ public class TestRail {
             @JsonSerialize(using = ListToCsvSerializer.class)
             private java.util.List<Integer> typeId;
             @JsonView(List.class)
+            @Getter(AccessLevel.NONE)
             private Date updatedAfter;
             @JsonView(List.class)
+            @Getter(AccessLevel.NONE)
             private Date updatedBefore;
             @JsonView(List.class)
             @JsonSerialize(using = ListToCsvSerializer.class)
             private java.util.List<Integer> updatedBy;
+            @JsonView(List.class)
+            private Integer limit;
+            @JsonView(List.class)
+            private Integer offset;
 
-            private List(int projectId, java.util.List<CaseField> caseFields) {
+            private List(int projectId, CaseFieldSchema caseFieldSchema) {
                 super(config, Method.GET, String.format(REST_PATH, projectId, ""), new TypeReference<java.util.List<Case>>() {
                 }, new TypeReference<Page<java.util.List<Case>>>(){});
-                this.caseFields = caseFields;
+                this.caseFieldSchema = caseFieldSchema;
             }
 
-            private List(int projectId, int suiteId, java.util.List<CaseField> caseFields) {
+            private List(int projectId, int suiteId, CaseFieldSchema caseFieldSchema) {
                 super(config, Method.GET, String.format(REST_PATH, projectId, suiteId), new TypeReference<java.util.List<Case>>() {
                 }, new TypeReference<Page<java.util.List<Case>>>(){});
-                this.caseFields = caseFields;
+                this.caseFieldSchema = caseFieldSchema;
             }
 
             @Override
             protected Object getSupplementForDeserialization() {
-                return caseFields;
+                return caseFieldSchema;
+            }
+
+            public Date createdAfter() {
+                return copyOf(createdAfter);
+            }
+
+            public Date createdBefore() {
+                return copyOf(createdBefore);
+            }
+
+            public Date updatedAfter() {
+                return copyOf(updatedAfter);
+            }
+
+            public Date updatedBefore() {
+                return copyOf(updatedBefore);
+            }
+
+            public List withSectionId(Integer sectionId) {
+                return copyWith(copy -> copy.sectionId = sectionId);
+            }
+
+            public List withCreatedAfter(Date createdAfter) {
+                return copyWith(copy -> copy.createdAfter = copyOf(createdAfter));
+            }
+
+            public List withCreatedBefore(Date createdBefore) {
+                return copyWith(copy -> copy.createdBefore = copyOf(createdBefore));
+            }
+
+            public List withCreatedBy(java.util.List<Integer> createdBy) {
+                return copyWith(copy -> copy.createdBy = copyOf(createdBy));
+            }
+
+            public List withMilestoneId(java.util.List<Integer> milestoneId) {
+                return copyWith(copy -> copy.milestoneId = copyOf(milestoneId));
+            }
+
+            public List withPriorityId(java.util.List<Integer> priorityId) {
+                return copyWith(copy -> copy.priorityId = copyOf(priorityId));
+            }
+
+            public List withTypeId(java.util.List<Integer> typeId) {
+                return copyWith(copy -> copy.typeId = copyOf(typeId));
+            }
+
+            public List withUpdatedAfter(Date updatedAfter) {
+                return copyWith(copy -> copy.updatedAfter = copyOf(updatedAfter));
+            }
+
+            public List withUpdatedBefore(Date updatedBefore) {
+                return copyWith(copy -> copy.updatedBefore = copyOf(updatedBefore));
+            }
+
+            public List withUpdatedBy(java.util.List<Integer> updatedBy) {
+                return copyWith(copy -> copy.updatedBy = copyOf(updatedBy));
+            }
+
+            public List withLimit(Integer limit) {
+                return copyWith(copy -> copy.limit = limit);
+            }
+
+            public List withOffset(Integer offset) {
+                return copyWith(copy -> copy.offset = offset);
+            }
+
+            @Override
+            public List withPrefetch(int pages) {
+                return (List) super.withPrefetch(pages);
+            }
+
+            /**
+             * Fetch every page and collect the test cases into a compact {@link CaseTable}. The test cases of a page are
+             * dropped once copied into the table, so only one page of test case objects is held at a time.
+             *
+             * @return the table of the listed test cases
+             */
+            public CaseTable executeTable() {
+                CaseTable.Builder table = CaseTable.builder();
+                iterator().forEachRemaining(table::add);
+                return table.build();
             }
 
         }
@@ -513,12 +1025,12 @@ public class TestRail {
             private static final String REST_PATH = "add_case/";
 
             private final Case testCase;
-            private final java.util.List<CaseField> caseFields;
+            private final CaseFieldSchema caseFieldSchema;
 
-            private Add(int sectionId, Case testCase, java.util.List<CaseField> caseFields) {
+            private Add(int sectionId, Case testCase, CaseFieldSchema caseFieldSchema) {
                 super(config, Method.POST, REST_PATH + sectionId, Case.class);
                 this.testCase = testCase;
-                this.caseFields = caseFields;
+                this.caseFieldSchema = caseFieldSchema;
             }
 
             @Override
@@ -528,7 +1040,7 @@ public class TestRail {
 
             @Override
             protected Object getSupplementForDeserialization() {
-                return caseFields;
+                return caseFieldSchema;
             }
 
         }
@@ -537,12 +1049,12 @@ public class TestRail {
             private static final String REST_PATH = "update_case/";
 
             private final Case testCase;
-            private final java.util.List<CaseField> caseFields;
+            private final CaseFieldSchema caseFieldSchema;
 
-            private Update(Case testCase, java.util.List<CaseField> caseFields) {
+            private Update(Case testCase, CaseFieldSchema caseFieldSchema) {
                 super(config, Method.POST, REST_PATH + testCase.getId(), Case.class);
                 this.testCase = testCase;
-                this.caseFields = caseFields;
+                this.caseFieldSchema = caseFieldSchema;
             }
 
             @Override
@@ -552,7 +1064,7 @@ public class TestRail {
 
             @Override
             protected Object getSupplementForDeserialization() {
-                return caseFields;
+                return caseFieldSchema;
             }
 
         }
@@ -564,6 +1076,76 @@ public class TestRail {
                 super(config, Method.POST, REST_PATH + testCaseId, Void.class);
             }
         }
+
+        public class BulkUpdate extends Request<Void> {
+            private static final String REST_PATH = "update_cases/";
+
+            private final BulkUpdateContent content;
+
+            private BulkUpdate(int suiteId, java.util.List<Integer> testCaseIds, Case changes) {
+                super(config, Method.POST, REST_PATH + suiteId, Void.class);
+                this.content = new BulkUpdateContent(testCaseIds, changes);
+            }
+
+            @Override
+            protected Object getContent() {
+                return content;
+            }
+
+            @Override
+            protected Class<?> getContentView() {
+                return Update.class;
+            }
+        }
+
+        public class BulkDelete extends Request<Void> {
+            private static final String REST_PATH = "delete_cases/";
+
+            private final java.util.List<Integer> testCaseIds;
+
+            private BulkDelete(int suiteId, java.util.List<Integer> testCaseIds) {
+                super(config, Method.POST, REST_PATH + suiteId, Void.class);
+                this.testCaseIds = testCaseIds;
+            }
+
+            @Override
+            protected Object getContent() {
+                return ImmutableMap.of("case_ids", testCaseIds);
+            }
+        }
+
+        public class MoveToSection extends Request<Void> {
+            private static final String REST_PATH = "move_cases_to_section/";
+
+            private final int suiteId;
+            private final java.util.List<Integer> testCaseIds;
+
+            private MoveToSection(int sectionId, int suiteId, java.util.List<Integer> testCaseIds) {
+                super(config, Method.POST, REST_PATH + sectionId, Void.class);
+                this.suiteId = suiteId;
+                this.testCaseIds = testCaseIds;
+            }
+
+            @Override
+            protected Object getContent() {
+                return ImmutableMap.of("suite_id", suiteId, "case_ids", testCaseIds);
+            }
+        }
+
+        /**
+         * Content of a bulk update: the IDs of the test cases next to the fields to set on them. The template ID is left
+         * out, as {@code Case} defaults it for {@code add_case} and sending it would reset the template of all the cases.
+         */
+        @RequiredArgsConstructor
+        private static class BulkUpdateContent {
+            @JsonProperty
+            @JsonView(Update.class)
+            private final java.util.List<Integer> caseIds;
+            @JsonUnwrapped
+            @JsonView(Update.class)
+            @JsonIgnoreProperties("template_id")
+            private final Case changes;
+        }
     }
 
     /**
@@ -588,6 +1170,11 @@ public class TestRail {
                 super(config, Method.GET, REST_PATH, new TypeReference<java.util.List<CaseField>>() {
                 }, new TypeReference<Page<java.util.List<CaseField>>>(){});
             }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
         }
     }
 
@@ -613,6 +1200,11 @@ public class TestRail {
                 super(config, Method.GET, REST_PATH, new TypeReference<java.util.List<CaseType>>() {
                 }, new TypeReference<Page<java.util.List<CaseType>>>(){});
             }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
         }
 
     }
@@ -643,6 +1235,11 @@ public class TestRail {
                 }, new TypeReference<Page<java.util.List<Configuration>>>(){});
             }
 
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
+
         }
 
     }
@@ -669,6 +1266,11 @@ public class TestRail {
                 super(config, Method.GET, REST_PATH, new TypeReference<java.util.List<Priority>>() {
                 }, new TypeReference<Page<java.util.List<Priority>>>(){});
             }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
         }
 
     }
@@ -762,8 +1364,14 @@ public class TestRail {
 
         }
 
-        public class List extends Request<java.util.List<Section>> {
+        @Getter
+        @Accessors(fluent = true)
+        public class List extends PaginatedRequest<Section> {
             private static final String REST_PATH = "get_sections/%s&suite_id=%s";
+            @JsonView(List.class)
+            private Integer limit;
+            @JsonView(List.class)
+            private Integer offset;
 
             private List(int projectId) {
                 super(config, Method.GET, String.format(REST_PATH, projectId, ""), new TypeReference<java.util.List<Section>>() {
@@ -774,6 +1382,19 @@ public class TestRail {
                 super(config, Method.GET, String.format(REST_PATH, projectId, suiteId), new TypeReference<java.util.List<Section>>() {
                 }, new TypeReference<Page<java.util.List<Section>>>(){});
             }
+
+            public List withLimit(Integer limit) {
+                return copyWith(copy -> copy.limit = limit);
+            }
+
+            public List withOffset(Integer offset) {
+                return copyWith(copy -> copy.offset = offset);
+            }
+
+            @Override
+            public List withPrefetch(int pages) {
+                return (List) super.withPrefetch(pages);
+            }
         }
 
         public class Add extends Request<Section> {
@@ -890,6 +1511,11 @@ public class TestRail {
             private Get(int suiteId) {
                 super(config, Method.GET, REST_PATH + suiteId, Suite.class);
             }
+
+            @Override
+            protected boolean isCacheable() {
+                return true;
+            }
         }
 
         public class List extends Request<java.util.List<Suite>> {
@@ -911,6 +1537,11 @@ public class TestRail {
                 this.suite = suite;
             }
 
+            @Override
+            protected boolean invalidatesMetadata() {
+                return true;
+            }
+
             @Override
             protected Object getContent() {
                 return suite;
@@ -927,6 +1558,11 @@ public class TestRail {
                 this.suite = suite;
             }
 
+            @Override
+            protected boolean invalidatesMetadata() {
+                return true;
+            }
+
             @Override
             protected Object getContent() {
                 return suite;
@@ -939,6 +1575,11 @@ public class TestRail {
             private Delete(int suiteId) {
                 super(config, Method.POST, REST_PATH + suiteId, Void.class);
             }
+
+            @Override
+            protected boolean invalidatesMetadata() {
+                return true;
+            }
         }
 
     }
@@ -24,7 +24,15 @@
 
 package client.testrail;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import client.testrail.internal.Compression;
+import client.testrail.internal.MetadataCache;
+import client.testrail.internal.SingleFlight;
+import client.testrail.internal.Throttle;
+import client.testrail.transport.Transport;
 import com.google.common.base.Optional;
+import jakarta.xml.bind.DatatypeConverter;
 import lombok.ToString;
 import lombok.Value;
 
@@ -32,19 +40,37 @@ import lombok.Value;
  * Configuration for using this client library.
  */
 @Value
-@ToString(exclude = {"password"})
+@ToString(exclude = {"password", "authorization"})
 class TestRailConfig {
 
     private final String baseApiUrl;
     private final String username;
     private final String password;
     private final Optional<String> applicationName;
+    private final String authorization;
+    private final Transport transport;
+    private final Executor executor;
+    private final Throttle throttle;
+    private final MetadataCache metadataCache;
+    private final SingleFlight singleFlight;
+    private final Compression compression;
+    private final int bulkSize;
 
-    TestRailConfig(final String baseApiUrl, final String username, final String password, final String applicationName) {
+    TestRailConfig(final String baseApiUrl, final String username, final String password, final String applicationName, final Transport transport,
+                   final Executor executor, final Throttle throttle, final MetadataCache metadataCache,
+                   final SingleFlight singleFlight, final Compression compression, final int bulkSize) {
         this.baseApiUrl = baseApiUrl;
         this.username = username;
         this.password = password;
         this.applicationName = Optional.fromNullable(applicationName);
+        this.authorization = "Basic " + DatatypeConverter.printBase64Binary((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        this.transport = transport;
+        this.executor = executor;
+        this.throttle = throttle;
+        this.metadataCache = metadataCache;
+        this.singleFlight = singleFlight;
+        this.compression = compression;
+        this.bulkSize = bulkSize;
     }
 
 }
@@ -25,26 +25,21 @@
 package client.testrail.internal;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import client.testrail.model.Case;
-import client.testrail.model.CaseField;
-import client.testrail.model.Field;
+import client.testrail.model.CaseFieldSchema;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
-import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.SettableAnyProperty;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
 import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.google.common.base.Function;
-import com.google.common.collect.Maps;
 import static com.google.common.base.Preconditions.checkArgument;
 
 /**
@@ -54,55 +49,64 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 public class CaseModule extends SimpleModule {
 
+    private static final String CUSTOM_FIELD_KEY_PREFIX = "custom_";
+
     @Override
     public void setupModule(SetupContext setupContext) {
         setupContext.addBeanDeserializerModifier(new CaseDeserializerModifier());
         super.setupModule(setupContext);
     }
 
-    private static class CaseDeserializer extends StdDeserializer<Case> implements ResolvableDeserializer {
-        private final JsonDeserializer<?> defaultDeserializer;
-
-        CaseDeserializer(JsonDeserializer<?> defaultDeserializer) {
-            super(Case.class);
-            this.defaultDeserializer = defaultDeserializer;
-        }
+    /**
+     * Deserializer for the values of unknown {@link Case} properties, which decodes custom fields straight from the parser
+     * to the type given by the {@link CaseFieldSchema} injected by the request, or keeps them as {@link LazyCustomField}s
+     * if the schema is lazy.
+     */
+    private static class CustomFieldDeserializer extends StdDeserializer<Object> {
 
-        @Override
-        public Case deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException, JsonProcessingException {
-            Case testCase = (Case) defaultDeserializer.deserialize(jsonParser, deserializationContext);
+        // a handful of value types, resolved once instead of for every custom field of every case
+        private final Map<JavaType, JsonDeserializer<Object>> valueDeserializers = new ConcurrentHashMap<>();
 
-            ObjectMapper mapper = (ObjectMapper) jsonParser.getCodec();
-            List<CaseField> caseFieldList = (List<CaseField>) deserializationContext.findInjectableValue(Case.class.toString(), null, null);
-            Map<String, CaseField> caseFields = Maps.uniqueIndex(caseFieldList, new Function<CaseField, String>() {
-                @Override
-                public String apply(final CaseField caseField) {
-                    return caseField.getName();
-                }
-            });
-            Map<String, Object> customFields = new HashMap<>(testCase.getCustomFields().size());
-            for (Map.Entry<String, Object> customField : testCase.getCustomFields().entrySet()) {
-                checkArgument(caseFields.containsKey(customField.getKey()), "Case field list configuration is possibly outdated since it does not contain custom field: " + customField.getKey());
-                customFields.put(customField.getKey(), mapper.convertValue(customField.getValue(), Field.Type.getType(caseFields.get(customField.getKey()).getTypeId()).getTypeReference()));
-            }
-            testCase.setCustomFields(customFields);
-            return testCase;
+        CustomFieldDeserializer() {
+            super(Object.class);
         }
 
         @Override
-        public void resolve(DeserializationContext deserializationContext) throws JsonMappingException {
-            ((ResolvableDeserializer) defaultDeserializer).resolve(deserializationContext);
+        public Object deserialize(JsonParser jsonParser, DeserializationContext deserializationContext) throws IOException {
+            String key = jsonParser.currentName();
+            if (key == null || !key.startsWith(CUSTOM_FIELD_KEY_PREFIX)) {
+                // dropped by Case anyway
+                jsonParser.skipChildren();
+                return null;
+            }
+            String name = key.substring(CUSTOM_FIELD_KEY_PREFIX.length());
+            CaseFieldSchema caseFieldSchema = (CaseFieldSchema) deserializationContext.findInjectableValue(Case.class.toString(), null, null);
+            JavaType valueType = caseFieldSchema.getValueType(name);
+            checkArgument(valueType != null, "Case field list configuration is possibly outdated since it does not contain custom field: " + name);
+            // scalars are cheaper to decode than to copy, so only structured values like steps are kept for later
+            if (caseFieldSchema.isLazy() && jsonParser.currentToken().isStructStart()) {
+                return LazyCustomField.copyOf(jsonParser, valueType);
+            }
+            JsonDeserializer<Object> valueDeserializer = valueDeserializers.get(valueType);
+            if (valueDeserializer == null) {
+                valueDeserializer = deserializationContext.findRootValueDeserializer(valueType);
+                valueDeserializers.put(valueType, valueDeserializer);
+            }
+            return valueDeserializer.deserialize(jsonParser, deserializationContext);
         }
     }
 
     private static class CaseDeserializerModifier extends BeanDeserializerModifier {
 
         @Override
-        public JsonDeserializer<?> modifyDeserializer(DeserializationConfig deserializationConfig, BeanDescription beanDescription, JsonDeserializer<?> jsonDeserializer) {
-            if (Case.class.isAssignableFrom(beanDescription.getBeanClass())) {
-                return new CaseDeserializer(jsonDeserializer);
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig deserializationConfig, BeanDescription beanDescription, BeanDeserializerBuilder builder) {
+            SettableAnyProperty anySetter = builder.getAnySetter();
+            if (Case.class.isAssignableFrom(beanDescription.getBeanClass()) && anySetter != null) {
+                // the builder only accepts a new any setter once the current one is cleared
+                builder.setAnySetter(null);
+                builder.setAnySetter(anySetter.withValueDeserializer(new CustomFieldDeserializer()));
             }
-            return jsonDeserializer;
+            return builder;
         }
 
     }
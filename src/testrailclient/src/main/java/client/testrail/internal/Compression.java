@@ -0,0 +1,145 @@
+package client.testrail.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * HTTP content coding of request and response bodies.
+ * <p/>
+ * Responses are negotiated with an {@code Accept-Encoding} header and decoded while they are read, so the compressed body
+ * is never held in memory. Request bodies from a size on are sent gzip encoded, until the server rejects a compressed
+ * body with {@code 415 Unsupported Media Type}, after which bodies are sent as they are.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class Compression {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate";
+    private static final String GZIP = "gzip";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean acceptCompressedResponses;
+    private final int minimumRequestSize;
+    private volatile boolean requestCompressionRejected;
+
+    private Compression(boolean acceptCompressedResponses, int minimumRequestSize) {
+        this.acceptCompressedResponses = acceptCompressedResponses;
+        this.minimumRequestSize = minimumRequestSize;
+    }
+
+    /**
+     * Create the content coding settings of a client.
+     *
+     * @param acceptCompressedResponses whether to ask for compressed responses
+     * @param minimumRequestSize        the size from which request bodies are compressed, or zero to never compress them
+     * @return the settings
+     */
+    public static Compression create(boolean acceptCompressedResponses, int minimumRequestSize) {
+        return new Compression(acceptCompressedResponses, minimumRequestSize);
+    }
+
+    /**
+     * Get the value of the {@code Accept-Encoding} header to send.
+     *
+     * @return the accepted codings, or empty if compressed responses are not accepted
+     */
+    public Optional<String> getAcceptEncoding() {
+        return acceptCompressedResponses ? Optional.of(ACCEPT_ENCODING) : Optional.empty();
+    }
+
+    /**
+     * Wrap a response body in a stream which decodes it. Closing the decoding stream frees the inflater, if any, but leaves
+     * the body open, since the transport drains it before the connection is reused. An empty body, as sent with some errors,
+     * decodes to an empty stream whatever the coding.
+     *
+     * @param contentEncoding the {@code Content-Encoding} header of the response
+     * @param body            the body as received
+     * @return the decoded body
+     * @throws IOException if the body does not start as the coding requires
+     */
+    public static InputStream decode(Optional<String> contentEncoding, InputStream body) throws IOException {
+        String coding = contentEncoding.map(value -> value.trim().toLowerCase(Locale.ROOT)).orElse("identity");
+        InputStream unclosable = new FilterInputStream(body) {
+            @Override
+            public void close() {
+                // the body is closed by the transport
+            }
+        };
+        if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("deflate")) {
+            return unclosable;
+        }
+        PushbackInputStream stream = new PushbackInputStream(unclosable, 2);
+        byte[] header = stream.readNBytes(2);
+        if (header.length == 0) {
+            return InputStream.nullInputStream();
+        }
+        stream.unread(header);
+        if (!coding.equals("deflate")) {
+            return new GZIPInputStream(stream, BUFFER_SIZE);
+        }
+        // "deflate" should be zlib wrapped, but some servers send raw deflate data, which has no zlib header
+        boolean zlib = header.length == 2 && (header[0] & 0x0F) == 8 && ((header[0] & 0xFF) << 8 | header[1] & 0xFF) % 31 == 0;
+        return new InflaterInputStream(stream, new Inflater(!zlib), BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                // the inflater is created here, so InflaterInputStream does not end it
+                try {
+                    super.close();
+                } finally {
+                    inf.end();
+                }
+            }
+        };
+    }
+
+    /**
+     * Whether a request body should be sent compressed.
+     *
+     * @param body the request body
+     * @return {@code true} if the body is large enough and the server has not rejected a compressed body
+     */
+    public boolean shouldCompress(byte[] body) {
+        return minimumRequestSize > 0 && body != null && body.length >= minimumRequestSize && !requestCompressionRejected;
+    }
+
+    /**
+     * Get the {@code Content-Encoding} of compressed request bodies.
+     *
+     * @return the content coding
+     */
+    public String getRequestEncoding() {
+        return GZIP;
+    }
+
+    /**
+     * Compress a request body.
+     *
+     * @param body the request body
+     * @return the gzip encoded body
+     */
+    public byte[] compress(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed, BUFFER_SIZE)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Stop compressing request bodies, since the server does not accept them.
+     */
+    public void onRequestCompressionRejected() {
+        requestCompressionRejected = true;
+    }
+}
@@ -0,0 +1,96 @@
+package client.testrail.internal;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Limit on the number of requests in flight to TestRail at the same time. The limit can be changed while requests are
+ * in flight; lowering it only takes effect as requests complete.
+ * <p/>
+ * Blocked callers wait on a {@link ReentrantLock} rather than a monitor, so virtual threads waiting for a permit do not
+ * pin their carrier thread.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class ConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private int limit;
+    private int inFlight;
+
+    /**
+     * @param limit the maximum number of requests in flight
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public ConcurrencyLimiter(int limit) {
+        checkArgument(limit > 0, "limit should be positive");
+        this.limit = limit;
+    }
+
+    /**
+     * Wait until a request may be sent.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                released.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signal that a request acquired before has completed.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change the maximum number of requests in flight.
+     *
+     * @param limit the new limit
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    public void setLimit(int limit) {
+        checkArgument(limit > 0, "limit should be positive");
+        lock.lock();
+        try {
+            this.limit = limit;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
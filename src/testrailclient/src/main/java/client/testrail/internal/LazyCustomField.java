@@ -0,0 +1,85 @@
+package client.testrail.internal;
+
+import java.io.IOException;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Value of a custom case field kept as the raw UTF-8 JSON read from TestRail, to be decoded when it is first used. The
+ * JSON is a fraction of the size of the decoded value, which is a graph of lists, objects and strings.
+ * The decoded value is memoized and the JSON is released, so test cases shared between threads decode each field once
+ * and can be read concurrently.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class LazyCustomField {
+
+    private final JavaType valueType;
+    private final ObjectCodec codec;
+    private byte[] json;
+    private Object value;
+    private volatile boolean decoded;
+
+    private LazyCustomField(byte[] json, JavaType valueType, ObjectCodec codec) {
+        this.json = json;
+        this.valueType = valueType;
+        this.codec = codec;
+    }
+
+    /**
+     * Copy the value the parser is at, to be decoded later.
+     *
+     * @param parser    the parser, at the start of the value, which is left at its end
+     * @param valueType the type to decode the value to
+     * @return the lazy value
+     * @throws IOException if the value cannot be read
+     */
+    static LazyCustomField copyOf(JsonParser parser, JavaType valueType) throws IOException {
+        ObjectCodec codec = parser.getCodec();
+        try (ByteArrayBuilder json = new ByteArrayBuilder()) {
+            try (JsonGenerator generator = codec.getFactory().createGenerator(json)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return new LazyCustomField(json.toByteArray(), valueType, codec);
+        }
+    }
+
+    /**
+     * Decode the value to the type of its custom field, on the first call only. It is also what the value is serialized
+     * as, wherever it is reached.
+     *
+     * @return the decoded value
+     */
+    @JsonValue
+    public Object decode() {
+        if (!decoded) {
+            synchronized (this) {
+                if (!decoded) {
+                    try (JsonParser parser = codec.getFactory().createParser(json)) {
+                        parser.setCodec(codec);
+                        value = codec.readValue(parser, valueType);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                    json = null;
+                    decoded = true;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get the value of a custom field, decoding it if it is lazy.
+     *
+     * @param value a custom field value as kept by a test case
+     * @return the decoded value
+     */
+    public static Object decodeIfLazy(Object value) {
+        return value instanceof LazyCustomField ? ((LazyCustomField) value).decode() : value;
+    }
+}
@@ -0,0 +1,97 @@
+package client.testrail.internal;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Cache of responses of the slow-changing metadata endpoints of TestRail, such as case fields, case types, priorities,
+ * configurations, projects and suites, keyed by request URL.
+ * <p/>
+ * Entries expire a fixed time after they were fetched, and the least recently used entries are evicted when the cache is
+ * full. Concurrent requests for the same URL wait for a single fetch. A disabled cache fetches every time.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class MetadataCache {
+
+    private static final MetadataCache DISABLED = new MetadataCache(null);
+
+    private final Cache<String, Object> cache;
+
+    private MetadataCache(Cache<String, Object> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param expireAfterWrite how long a response is served from the cache after it was fetched
+     * @param maximumSize      the maximum number of responses in the cache
+     * @return the cache
+     */
+    public static MetadataCache create(Duration expireAfterWrite, long maximumSize) {
+        return new MetadataCache(CacheBuilder.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * Get the cache which does not cache anything.
+     *
+     * @return the disabled cache
+     */
+    public static MetadataCache disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Get the cached response for a URL, fetching it if it is not cached.
+     *
+     * @param url     the URL of the request
+     * @param fetcher fetches the response, which must not be {@code null}
+     * @param <T>     the type of the response
+     * @return the response
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String url, Supplier<T> fetcher) {
+        if (cache == null) {
+            return fetcher.get();
+        }
+        try {
+            return (T) cache.get(url, fetcher::get);
+        } catch (UncheckedExecutionException e) {
+            // rethrow the TestRailException or transport failure of the fetch as is
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Drop all cached responses.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Get the hit and miss counts of this cache.
+     *
+     * @return the statistics, all zero for a disabled cache
+     */
+    public CacheStats stats() {
+        return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+}
@@ -0,0 +1,41 @@
+package client.testrail.internal;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Factory for the {@link ObjectMapper} configured for the TestRail API.
+ * <p/>
+ * The mapper is created once and shared, so that Jackson resolves and caches (de)serializers only once per type.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class ObjectMapperFactory {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
+            .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false)
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            // the transport response owns the stream and releases its connection on close
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .registerModules(new CaseModule(), new FieldModule(), new UnixTimestampModule());
+
+    private ObjectMapperFactory() {
+    }
+
+    /**
+     * Get the shared object mapper.
+     *
+     * @return the object mapper
+     */
+    public static ObjectMapper getObjectMapper() {
+        return OBJECT_MAPPER;
+    }
+}
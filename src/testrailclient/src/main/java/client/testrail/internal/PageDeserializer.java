@@ -2,69 +2,99 @@ package client.testrail.internal;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import client.testrail.model.Links;
 import client.testrail.model.Page;
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
 import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.InjectableValues;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.PropertyNamingStrategy;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
 import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 
-public class PageDeserializer extends StdDeserializer<Page> {
+/**
+ * Deserializer for a {@link Page} of entities.
+ * <p/>
+ * The type of the entities is taken from the declared type of the page, e.g. {@code Page<List<Case>>}, and the entities
+ * are read straight from the token stream of the array holding them, whatever its name is ("cases", "sections", ...).
+ * Instances hold no mutable state, so they are shared by all requests and threads.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public class PageDeserializer extends StdDeserializer<Page<List<Object>>> implements ContextualDeserializer {
 
-    public static String field = "objects";
-    public static Class type = Object.class;
-    public static Object supplement = Collections.emptyList();
+    private final JsonDeserializer<Object> elementDeserializer;
+    private final String linksName;
 
     public PageDeserializer() {
-        this(null);
+        this(null, null);
     }
 
-    public PageDeserializer(Class<?> vc) {
-        super(vc);
+    private PageDeserializer(JsonDeserializer<Object> elementDeserializer, String linksName) {
+        super(Page.class);
+        this.elementDeserializer = elementDeserializer;
+        this.linksName = linksName;
     }
 
     @Override
-    public Page deserialize(JsonParser jp, DeserializationContext ctxt)
-            throws IOException, JsonProcessingException {
-        JsonNode node = jp.getCodec().readTree(jp);
-        int offset = node.get("offset").asInt();
-        int limit = node.get("limit").asInt();
-        int size = node.get("size").asInt();
-        JsonNode links = node.get("links");
-        String next = links.get("next").isNull() ? null : links.get("next").asText();
-        String prev = links.get("prev").isNull() ? null : links.get("prev").asText();
-        ArrayNode objects = (ArrayNode) node.get(field);
-        List list = new ArrayList<>();
-        ObjectMapper mapper = new ObjectMapper()
-            .setPropertyNamingStrategy(PropertyNamingStrategy.SNAKE_CASE)
-            .configure(MapperFeature.DEFAULT_VIEW_INCLUSION, false)
-            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
-            .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
-            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
-            .registerModules(new CaseModule(), new FieldModule(), new UnixTimestampModule());
-        for(int i = 0; i < objects.size(); i++) {
-            JsonNode element = objects.get(i);
-            list.add(mapper.reader(type).with(new InjectableValues.Std().addValue(type.toString(), supplement)).readValue(element.toString()));
+    public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+        JavaType pageType = property != null ? property.getType() : ctxt.getContextualType();
+        JavaType elementType = pageType.containedTypeOrUnknown(0).getContentType();
+        if (elementType == null) {
+            return ctxt.reportBadDefinition(pageType, "Page should be declared with a list of entities, e.g. Page<List<Case>>, but was " + pageType);
+        }
+        // the JSON name of the links is declared by the annotation on Page#links
+        String linksName = ctxt.getConfig().introspect(pageType).findProperties().stream()
+                .filter(definition -> definition.getInternalName().equals("links"))
+                .map(BeanPropertyDefinition::getName)
+                .findFirst()
+                .orElse("links");
+        return new PageDeserializer(ctxt.findRootValueDeserializer(elementType), linksName);
+    }
+
+    @Override
+    public Page<List<Object>> deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
+        Page<List<Object>> page = new Page<>();
+        page.objects = new ArrayList<>();
+        if (jp.currentToken() == JsonToken.START_OBJECT) {
+            jp.nextToken();
+        }
+        for (; jp.currentToken() == JsonToken.FIELD_NAME; jp.nextToken()) {
+            String field = jp.currentName();
+            JsonToken value = jp.nextToken();
+            if (field.equals(linksName)) {
+                page.links = value == JsonToken.VALUE_NULL ? null : ctxt.readValue(jp, Links.class);
+                continue;
+            }
+            switch (field) {
+                case "offset":
+                    page.offset = jp.getValueAsInt();
+                    break;
+                case "limit":
+                    page.limit = jp.getValueAsInt();
+                    break;
+                case "size":
+                    page.size = jp.getValueAsInt();
+                    break;
+                default:
+                    // the only array of a page holds its entities
+                    if (value == JsonToken.START_ARRAY) {
+                        readElements(jp, ctxt, page.objects);
+                    } else {
+                        jp.skipChildren();
+                    }
+            }
         }
-        Page page = new Page();
-        page.limit = limit;
-        page.offset = offset;
-        page.size = size;
-        page._links = new Links();
-        page._links.next = next;
-        page._links.prev = prev;
-        page.objects = list;
         return page;
     }
+
+    private void readElements(JsonParser jp, DeserializationContext ctxt, List<Object> elements) throws IOException {
+        while (jp.nextToken() != JsonToken.END_ARRAY) {
+            elements.add(jp.currentToken() == JsonToken.VALUE_NULL ? null : elementDeserializer.deserialize(jp, ctxt));
+        }
+    }
 }
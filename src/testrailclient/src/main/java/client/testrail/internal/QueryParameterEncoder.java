@@ -0,0 +1,146 @@
+package client.testrail.internal;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Encoder of the query parameters of a request class.
+ * <p/>
+ * Query parameters are the fields of the request annotated with a {@link JsonView} which includes the request class. They
+ * are encoded the same way the request would be serialized to JSON: names are translated to snake case, dates are written
+ * as unix timestamps in seconds, lists serialized with {@link ListToCsvSerializer} as comma separated values, booleans
+ * serialized with {@link BooleanToIntSerializer} as 1 or 0 and {@code null} values are left out. The fields are looked up
+ * once per request class.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class QueryParameterEncoder {
+
+    private static final ClassValue<QueryParameterEncoder> ENCODERS = new ClassValue<QueryParameterEncoder>() {
+        @Override
+        protected QueryParameterEncoder computeValue(Class<?> requestClass) {
+            return new QueryParameterEncoder(requestClass);
+        }
+    };
+
+    private static final Joiner CSV = Joiner.on(',');
+
+    private final List<Parameter> parameters;
+
+    private QueryParameterEncoder(Class<?> requestClass) {
+        ImmutableList.Builder<Parameter> parameters = ImmutableList.builder();
+        for (Class<?> type = requestClass; type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!field.isSynthetic() && !Modifier.isStatic(field.getModifiers()) && isInView(field, requestClass)) {
+                    field.setAccessible(true);
+                    String name = getName(field);
+                    parameters.add(new Parameter(name, URLEncoder.encode(name, StandardCharsets.UTF_8), field, getFormatter(field)));
+                }
+            }
+        }
+        this.parameters = parameters.build();
+    }
+
+    /**
+     * Get the encoder for a request class.
+     *
+     * @param requestClass the class of the request
+     * @return the encoder, which is created on first use and shared afterwards
+     */
+    public static QueryParameterEncoder forClass(Class<?> requestClass) {
+        return ENCODERS.get(requestClass);
+    }
+
+    /**
+     * Add the query parameters of a request which are set.
+     *
+     * @param request         the request to take the values from
+     * @param queryParameters the query parameters to add to
+     */
+    public void encode(Object request, QueryParameterString queryParameters) {
+        encode(request, queryParameters, Collections.emptySet());
+    }
+
+    /**
+     * Add the query parameters of a request which are set, except some.
+     *
+     * @param request         the request to take the values from
+     * @param queryParameters the query parameters to add to
+     * @param excludedNames   the names of the query parameters to leave out, for e.g. to replace them
+     */
+    public void encode(Object request, QueryParameterString queryParameters, Set<String> excludedNames) {
+        for (Parameter parameter : parameters) {
+            if (excludedNames.contains(parameter.name)) {
+                continue;
+            }
+            Object value;
+            try {
+                value = parameter.field.get(request);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            if (value != null) {
+                queryParameters.addEncodedKeyQueryParameter(parameter.encodedName, parameter.formatter.apply(value));
+            }
+        }
+    }
+
+    private static boolean isInView(Field field, Class<?> requestClass) {
+        JsonView view = field.getAnnotation(JsonView.class);
+        return view != null && Arrays.stream(view.value()).anyMatch(viewClass -> viewClass.isAssignableFrom(requestClass));
+    }
+
+    private static String getName(Field field) {
+        JsonProperty property = field.getAnnotation(JsonProperty.class);
+        if (property != null && !property.value().isEmpty()) {
+            return property.value();
+        }
+        return ((PropertyNamingStrategies.NamingBase) PropertyNamingStrategies.SNAKE_CASE).translate(field.getName());
+    }
+
+    private static Function<Object, String> getFormatter(Field field) {
+        JsonSerialize serialize = field.getAnnotation(JsonSerialize.class);
+        if (serialize != null && serialize.using() == ListToCsvSerializer.class) {
+            return value -> CSV.join((List<?>) value);
+        }
+        if (serialize != null && serialize.using() == BooleanToIntSerializer.class) {
+            return value -> (Boolean) value ? "1" : "0";
+        }
+        if (serialize != null && serialize.using() != JsonSerializer.None.class) {
+            throw new IllegalStateException("Unsupported serializer " + serialize.using().getName() + " of query parameter " + field);
+        }
+        if (Date.class.isAssignableFrom(field.getType())) {
+            return value -> String.valueOf(((Date) value).getTime() / 1000);
+        }
+        return String::valueOf;
+    }
+
+    private static class Parameter {
+        private final String name;
+        private final String encodedName;
+        private final Field field;
+        private final Function<Object, String> formatter;
+
+        Parameter(String name, String encodedName, Field field, Function<Object, String> formatter) {
+            this.name = name;
+            this.encodedName = encodedName;
+            this.field = field;
+            this.formatter = formatter;
+        }
+    }
+}
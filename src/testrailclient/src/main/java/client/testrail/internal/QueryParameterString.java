@@ -26,6 +26,7 @@ package client.testrail.internal;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
 
 /**
@@ -37,10 +38,20 @@ public final class QueryParameterString {
 
     @JsonAnySetter
     public void addQueryParameter(String key, String value) throws UnsupportedEncodingException {
+        addEncodedKeyQueryParameter(URLEncoder.encode(key, "UTF-8"), value);
+    }
+
+    /**
+     * Add a query parameter whose key is already URL encoded.
+     *
+     * @param encodedKey the URL encoded key
+     * @param value      the value, which is URL encoded by this method
+     */
+    public void addEncodedKeyQueryParameter(String encodedKey, String value) {
         if (queryParamStringBuilder.length() > 0) {
             queryParamStringBuilder.append('&');
         }
-        queryParamStringBuilder.append(URLEncoder.encode(key, "UTF-8")).append('=').append(URLEncoder.encode(value, "UTF-8"));
+        queryParamStringBuilder.append(encodedKey).append('=').append(URLEncoder.encode(value, StandardCharsets.UTF_8));
     }
 
     @Override
@@ -0,0 +1,97 @@
+package client.testrail.internal;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Coalescing of identical calls in flight: while a call for a key is running, further calls for the same key wait for it
+ * and get its result, or its exception, instead of running again. Once the call completes the next call for the key runs
+ * again, so results are never served after the fact.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class SingleFlight {
+
+    private static final SingleFlight DISABLED = new SingleFlight(null);
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> calls;
+
+    private SingleFlight(ConcurrentMap<Object, CompletableFuture<Object>> calls) {
+        this.calls = calls;
+    }
+
+    /**
+     * Create an instance which coalesces calls.
+     *
+     * @return the instance
+     */
+    public static SingleFlight create() {
+        return new SingleFlight(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Get the instance which runs every call.
+     *
+     * @return the disabled instance
+     */
+    public static SingleFlight disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Whether calls are coalesced.
+     *
+     * @return {@code false} for the disabled instance
+     */
+    public boolean isEnabled() {
+        return calls != null;
+    }
+
+    /**
+     * Run a call, unless a call for the same key is already in flight.
+     *
+     * @param key  the key identifying identical calls, with {@code equals} and {@code hashCode}
+     * @param call the call
+     * @param <T>  the type of the result
+     * @return the result of this call or of the call in flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> call) {
+        if (calls == null) {
+            return call.get();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = calls.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            return (T) await(inFlight);
+        }
+        try {
+            T result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(new InterruptedIOException("Interrupted while waiting for identical request in flight"));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw (Error) e.getCause();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package client.testrail.internal;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Client-wide throttling of the requests sent to TestRail.
+ * <p/>
+ * Before a request is sent it waits until any {@code Retry-After} pause requested by TestRail has passed, then for a token
+ * from the optional {@link TokenBucket} and finally for a permit of the {@link ConcurrencyLimiter}. When adaptive, the
+ * concurrency limit follows AIMD: it grows by one after a full limit of successful requests and is halved when TestRail
+ * rejects a request for overload. Requests which were already in flight when the limit was halved do not halve it again,
+ * so a single burst of rejections counts once.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class Throttle {
+
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final int maxConcurrentRequests;
+    private final boolean adaptive;
+    private final TokenBucket tokenBucket;
+    private final int maxRetries;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long pausedUntil = System.nanoTime();
+    private long generation;
+    private int successes;
+
+    /**
+     * @param maxConcurrentRequests the maximum number of requests in flight
+     * @param adaptive              whether to lower the concurrency limit when TestRail is overloaded
+     * @param tokenBucket           the bucket limiting the rate of requests, or {@code null} for no rate limit
+     * @param maxRetries            the maximum number of times a request is sent again
+     * @param initialBackoff        the upper bound of the delay before the first retry
+     * @param maxBackoff            the upper bound of the delay before any retry
+     */
+    public Throttle(int maxConcurrentRequests, boolean adaptive, TokenBucket tokenBucket, int maxRetries, Duration initialBackoff,
+                    Duration maxBackoff) {
+        checkArgument(maxRetries >= 0, "maxRetries should not be negative");
+        this.concurrencyLimiter = new ConcurrencyLimiter(maxConcurrentRequests);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.adaptive = adaptive;
+        this.tokenBucket = tokenBucket;
+        this.maxRetries = maxRetries;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Wait until a request may be sent. Every call must be followed by a call to {@link #release()}.
+     *
+     * @return the generation of the concurrency limit the request is sent under, to be passed to {@link #onOverload}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long acquire() throws InterruptedException {
+        waitForPause();
+        if (tokenBucket != null) {
+            tokenBucket.acquire();
+        }
+        concurrencyLimiter.acquire();
+        lock.lock();
+        try {
+            return generation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signal that a request acquired before has completed.
+     */
+    public void release() {
+        concurrencyLimiter.release();
+    }
+
+    /**
+     * Signal that TestRail accepted a request.
+     */
+    public void onSuccess() {
+        if (!adaptive) {
+            return;
+        }
+        lock.lock();
+        try {
+            int limit = concurrencyLimiter.getLimit();
+            if (++successes >= limit && limit < maxConcurrentRequests) {
+                concurrencyLimiter.setLimit(limit + 1);
+                successes = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Signal that TestRail rejected a request because it is overloaded.
+     *
+     * @param generation the generation returned by {@link #acquire()} for the request
+     * @param retryAfter the time TestRail asked to wait before sending more requests, if any
+     */
+    public void onOverload(long generation, Optional<Duration> retryAfter) {
+        lock.lock();
+        try {
+            if (retryAfter.isPresent()) {
+                pausedUntil = Math.max(pausedUntil, System.nanoTime() + retryAfter.get().toNanos());
+            }
+            if (adaptive && generation == this.generation) {
+                concurrencyLimiter.setLimit(Math.max(1, concurrencyLimiter.getLimit() / 2));
+                this.generation++;
+                successes = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a request may be sent again after the given number of retries.
+     *
+     * @param retries the number of times the request has been retried already
+     * @return {@code true} if it may be retried
+     */
+    public boolean canRetry(int retries) {
+        return retries < maxRetries;
+    }
+
+    /**
+     * Get the delay before a retry. The delay is random between zero and an exponentially growing upper bound, so that
+     * requests rejected together do not come back together.
+     *
+     * @param retries the number of times the request has been retried already
+     * @return the delay
+     */
+    public Duration getBackoff(int retries) {
+        long bound = initialBackoff.toMillis() << Math.min(retries, 20);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(Math.min(bound, maxBackoff.toMillis()) + 1));
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimiter.getLimit();
+    }
+
+    /**
+     * Parse the value of a {@code Retry-After} header, which is either a number of seconds or an HTTP date.
+     *
+     * @param value the header value
+     * @return the time to wait, if the value is valid
+     */
+    public static Optional<Duration> parseRetryAfter(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim()))));
+        } catch (NumberFormatException e) {
+            try {
+                Duration wait = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Optional.of(wait.isNegative() ? Duration.ZERO : wait);
+            } catch (DateTimeParseException ignored) {
+                return Optional.empty();
+            }
+        }
+    }
+
+    private void waitForPause() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            lock.lock();
+            try {
+                waitNanos = pausedUntil - System.nanoTime();
+            } finally {
+                lock.unlock();
+            }
+            if (waitNanos <= 0) {
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
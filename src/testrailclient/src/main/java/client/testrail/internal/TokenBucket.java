@@ -0,0 +1,57 @@
+package client.testrail.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Token bucket limiting the rate of requests sent to TestRail. Tokens are added at a constant rate up to the capacity of
+ * the bucket, which allows short bursts above the rate. A caller which finds the bucket empty reserves the next token
+ * and waits until it is added, so waiting callers are served in order.
+ * <p/>
+ * INTERNAL ONLY
+ */
+public final class TokenBucket {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * @param tokensPerSecond the rate at which tokens are added
+     * @param capacity        the maximum number of tokens, which is also the number of tokens initially available
+     * @throws IllegalArgumentException if any argument is not positive
+     */
+    public TokenBucket(double tokensPerSecond, int capacity) {
+        checkArgument(tokensPerSecond > 0, "tokensPerSecond should be positive");
+        checkArgument(capacity > 0, "capacity should be positive");
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Take a token, waiting until one is available.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+        } finally {
+            lock.unlock();
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import client.testrail.TestRail;
+import client.testrail.internal.LazyCustomField;
 import com.fasterxml.jackson.annotation.JsonAnyGetter;
 import com.fasterxml.jackson.annotation.JsonAnySetter;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -38,7 +39,7 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.StdKeySerializer;
-import com.google.common.base.MoreObjects;
+import com.google.common.collect.Maps;
 import lombok.Data;
 
 
@@ -93,7 +94,11 @@ public class Case {
     @JsonAnyGetter
     @JsonSerialize(keyUsing = CustomFieldSerializer.class)
     public Map<String, Object> getCustomFields() {
-        return MoreObjects.firstNonNull(customFields, Collections.<String, Object>emptyMap());
+        if (customFields == null) {
+            return Collections.emptyMap();
+        }
+        // a view rather than decoding into the map, which would race with concurrent readers of a shared test case
+        return Maps.transformValues(customFields, LazyCustomField::decodeIfLazy);
     }
 
     /**
@@ -107,7 +112,7 @@ public class Case {
         if (customFields == null) {
             customFields = new HashMap<>();
         }
-        customFields.put(key.replaceFirst(CUSTOM_FIELD_KEY_PREFIX, ""), value);
+        customFields.put(key.startsWith(CUSTOM_FIELD_KEY_PREFIX) ? key.substring(CUSTOM_FIELD_KEY_PREFIX.length()) : key, value);
         return this;
     }
 
@@ -127,13 +132,14 @@ public class Case {
     /**
      * Get custom field.
      * <p>Use Java Type Inference, to get the value with correct type. Refer to {@link Type} for a map of TestRail field types to Java types.</p>
+     * <p>If the test case was read with a {@link CaseFieldSchema#lazy() lazy schema}, the value is decoded on the first call.</p>
      *
      * @param key the system name of custom field
      * @param <T> the type of returned value
      * @return the value of the custom field
      */
     public <T> T getCustomField(String key) {
-        return (T) getCustomFields().get(key);
+        return (T) (customFields == null ? null : LazyCustomField.decodeIfLazy(customFields.get(key)));
     }
 
     /**
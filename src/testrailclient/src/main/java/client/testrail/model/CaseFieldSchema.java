@@ -0,0 +1,85 @@
+package client.testrail.model;
+
+import java.util.List;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+
+/**
+ * Type information of the custom case fields configured in TestRail, compiled once from the list of {@link CaseField}s.
+ * <p>Create it from the result of {@code TestRail.CaseFields#list()} and reuse it for all {@code TestRail.Cases} requests,
+ * so that the type of each custom field is not looked up again for every test case returned.</p>
+ */
+public final class CaseFieldSchema {
+
+    private final List<CaseField> caseFields;
+    private final ImmutableMap<String, JavaType> valueTypes;
+    private final boolean lazy;
+
+    private CaseFieldSchema(List<CaseField> caseFields, ImmutableMap<String, JavaType> valueTypes, boolean lazy) {
+        this.caseFields = caseFields;
+        this.valueTypes = valueTypes;
+        this.lazy = lazy;
+    }
+
+    /**
+     * Compile the schema of custom case fields.
+     *
+     * @param caseFields the custom case fields configured in TestRail
+     * @return the schema
+     * @throws IllegalArgumentException if two case fields have the same name
+     * @throws NullPointerException     if caseFields is null
+     */
+    public static CaseFieldSchema of(@NonNull List<CaseField> caseFields) {
+        ImmutableMap.Builder<String, JavaType> valueTypes = ImmutableMap.builder();
+        for (CaseField caseField : caseFields) {
+            valueTypes.put(caseField.getName(), TypeFactory.defaultInstance().constructType(Field.Type.getType(caseField.getTypeId()).getTypeReference()));
+        }
+        return new CaseFieldSchema(ImmutableList.copyOf(caseFields), valueTypes.buildOrThrow(), false);
+    }
+
+    /**
+     * Get a lazy variant of this schema. Test cases read with it keep their structured custom fields, like steps, as raw
+     * JSON bytes, which are decoded on the first call to {@link Case#getCustomField(String)} or
+     * {@link Case#getCustomFields()} and memoized.
+     * <p>Use it for bulk reads which mostly look at the standard fields of a test case, such as its ID, title or section,
+     * to save the time of decoding custom fields which are never used, and the heap their decoded values would take while
+     * many test cases are held.</p>
+     *
+     * @return the lazy schema
+     */
+    public CaseFieldSchema lazy() {
+        return lazy ? this : new CaseFieldSchema(caseFields, valueTypes, true);
+    }
+
+    /**
+     * Whether custom fields are decoded lazily.
+     *
+     * @return {@code true} if this schema was created by {@link #lazy()}
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Get the custom case fields this schema was compiled from.
+     *
+     * @return the case fields
+     */
+    public List<CaseField> getCaseFields() {
+        return caseFields;
+    }
+
+    /**
+     * Get the Java type of the values of a custom field. Refer to {@link Field.Type} for a map of TestRail field types to
+     * Java types.
+     *
+     * @param name the system name of the custom field without "custom_" prefix
+     * @return the type, or {@code null} if there is no such custom field
+     */
+    public JavaType getValueType(String name) {
+        return valueTypes.get(name);
+    }
+}
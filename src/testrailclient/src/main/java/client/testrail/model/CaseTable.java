@@ -0,0 +1,325 @@
+package client.testrail.model;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.google.common.collect.ImmutableMap;
+import lombok.NonNull;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * Compact, read-only table of test cases, for holding large numbers of test cases in memory, for e.g. for analytics.
+ * <p>Instead of an object per test case, every field is a column: IDs are kept in {@code int} arrays and timestamps in
+ * {@code long} arrays of milliseconds since the epoch, strings are kept once in a dictionary and referenced by index, and
+ * each custom field has its own column next to the table. Fields of a test case are read by its row, from {@code 0} to
+ * {@code size() - 1}.</p>
+ * <p>Optional IDs which are not set read as {@link #NULL_ID} and timestamps which are not set as {@link #NULL_TIMESTAMP}.</p>
+ */
+public final class CaseTable {
+
+    /**
+     * Value of an optional ID which is not set. TestRail IDs are positive.
+     */
+    public static final int NULL_ID = 0;
+
+    /**
+     * Value of a timestamp which is not set.
+     */
+    public static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+
+    private static final int NULL_STRING = -1;
+
+    private final int size;
+    private final int[] ids;
+    private final int[] sectionIds;
+    private final int[] suiteIds;
+    private final int[] templateIds;
+    private final int[] typeIds;
+    private final int[] priorityIds;
+    private final int[] milestoneIds;
+    private final int[] createdBy;
+    private final int[] updatedBy;
+    private final long[] createdOn;
+    private final long[] updatedOn;
+    private final int[] titles;
+    private final int[] refs;
+    private final int[] estimates;
+    private final int[] estimateForecasts;
+    private final String[] dictionary;
+    private final ImmutableMap<String, Object[]> customFields;
+
+    private CaseTable(Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        sectionIds = Arrays.copyOf(builder.sectionIds, size);
+        suiteIds = Arrays.copyOf(builder.suiteIds, size);
+        templateIds = Arrays.copyOf(builder.templateIds, size);
+        typeIds = Arrays.copyOf(builder.typeIds, size);
+        priorityIds = Arrays.copyOf(builder.priorityIds, size);
+        milestoneIds = Arrays.copyOf(builder.milestoneIds, size);
+        createdBy = Arrays.copyOf(builder.createdBy, size);
+        updatedBy = Arrays.copyOf(builder.updatedBy, size);
+        createdOn = Arrays.copyOf(builder.createdOn, size);
+        updatedOn = Arrays.copyOf(builder.updatedOn, size);
+        titles = Arrays.copyOf(builder.titles, size);
+        refs = Arrays.copyOf(builder.refs, size);
+        estimates = Arrays.copyOf(builder.estimates, size);
+        estimateForecasts = Arrays.copyOf(builder.estimateForecasts, size);
+        dictionary = builder.dictionary.keySet().toArray(new String[0]);
+        ImmutableMap.Builder<String, Object[]> customFieldColumns = ImmutableMap.builder();
+        for (Map.Entry<String, Object[]> column : builder.customFields.entrySet()) {
+            customFieldColumns.put(column.getKey(), Arrays.copyOf(column.getValue(), size));
+        }
+        customFields = customFieldColumns.build();
+    }
+
+    /**
+     * Get a builder to collect test cases into a table.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Get the number of test cases in this table.
+     *
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getId(int row) {
+        return ids[checkElementIndex(row, size)];
+    }
+
+    public int getSectionId(int row) {
+        return sectionIds[checkElementIndex(row, size)];
+    }
+
+    public int getSuiteId(int row) {
+        return suiteIds[checkElementIndex(row, size)];
+    }
+
+    public int getTemplateId(int row) {
+        return templateIds[checkElementIndex(row, size)];
+    }
+
+    public int getTypeId(int row) {
+        return typeIds[checkElementIndex(row, size)];
+    }
+
+    public int getPriorityId(int row) {
+        return priorityIds[checkElementIndex(row, size)];
+    }
+
+    public int getMilestoneId(int row) {
+        return milestoneIds[checkElementIndex(row, size)];
+    }
+
+    public int getCreatedBy(int row) {
+        return createdBy[checkElementIndex(row, size)];
+    }
+
+    public int getUpdatedBy(int row) {
+        return updatedBy[checkElementIndex(row, size)];
+    }
+
+    public long getCreatedOn(int row) {
+        return createdOn[checkElementIndex(row, size)];
+    }
+
+    public long getUpdatedOn(int row) {
+        return updatedOn[checkElementIndex(row, size)];
+    }
+
+    public String getTitle(int row) {
+        return getString(titles[checkElementIndex(row, size)]);
+    }
+
+    public String getRefs(int row) {
+        return getString(refs[checkElementIndex(row, size)]);
+    }
+
+    public String getEstimate(int row) {
+        return getString(estimates[checkElementIndex(row, size)]);
+    }
+
+    public String getEstimateForecast(int row) {
+        return getString(estimateForecasts[checkElementIndex(row, size)]);
+    }
+
+    /**
+     * Get a custom field of a test case.
+     *
+     * @param row the row of the test case
+     * @param key the system name of custom field
+     * @param <T> the type of returned value
+     * @return the value of the custom field, or {@code null} if it is not set
+     * @see Case#getCustomField(String)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getCustomField(int row, String key) {
+        checkElementIndex(row, size);
+        Object[] column = customFields.get(key);
+        return column == null ? null : (T) column[row];
+    }
+
+    /**
+     * Create a test case object from a row, for e.g. to update it.
+     *
+     * @param row the row of the test case
+     * @return a new test case
+     */
+    public Case getCase(int row) {
+        Case testCase = new Case()
+                .setId(getId(row))
+                .setTitle(getTitle(row))
+                .setSectionId(getSectionId(row))
+                .setTemplateId(getTemplateId(row))
+                .setTypeId(getOptionalId(typeIds[row]))
+                .setPriorityId(getOptionalId(priorityIds[row]))
+                .setMilestoneId(getOptionalId(milestoneIds[row]))
+                .setRefs(getRefs(row))
+                .setCreatedBy(getCreatedBy(row))
+                .setCreatedOn(getDate(createdOn[row]))
+                .setUpdatedBy(getUpdatedBy(row))
+                .setUpdatedOn(getDate(updatedOn[row]))
+                .setEstimate(getEstimate(row))
+                .setEstimateForecast(getEstimateForecast(row))
+                .setSuiteId(getSuiteId(row));
+        for (Map.Entry<String, Object[]> column : customFields.entrySet()) {
+            if (column.getValue()[row] != null) {
+                testCase.addCustomField(column.getKey(), column.getValue()[row]);
+            }
+        }
+        return testCase;
+    }
+
+    private String getString(int index) {
+        return index == NULL_STRING ? null : dictionary[index];
+    }
+
+    private static Integer getOptionalId(int id) {
+        return id == NULL_ID ? null : id;
+    }
+
+    private static Date getDate(long timestamp) {
+        return timestamp == NULL_TIMESTAMP ? null : new Date(timestamp);
+    }
+
+    /**
+     * Builder for {@code CaseTable}, which copies the fields of each test case added, so that the test case objects can be
+     * dropped right after, for e.g. page by page while listing test cases.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 256;
+
+        private int size;
+        private int[] ids = new int[INITIAL_CAPACITY];
+        private int[] sectionIds = new int[INITIAL_CAPACITY];
+        private int[] suiteIds = new int[INITIAL_CAPACITY];
+        private int[] templateIds = new int[INITIAL_CAPACITY];
+        private int[] typeIds = new int[INITIAL_CAPACITY];
+        private int[] priorityIds = new int[INITIAL_CAPACITY];
+        private int[] milestoneIds = new int[INITIAL_CAPACITY];
+        private int[] createdBy = new int[INITIAL_CAPACITY];
+        private int[] updatedBy = new int[INITIAL_CAPACITY];
+        private long[] createdOn = new long[INITIAL_CAPACITY];
+        private long[] updatedOn = new long[INITIAL_CAPACITY];
+        private int[] titles = new int[INITIAL_CAPACITY];
+        private int[] refs = new int[INITIAL_CAPACITY];
+        private int[] estimates = new int[INITIAL_CAPACITY];
+        private int[] estimateForecasts = new int[INITIAL_CAPACITY];
+        // insertion ordered, so that the index of a string is its position in the dictionary of the table
+        private final Map<String, Integer> dictionary = new LinkedHashMap<>();
+        private final Map<String, Object[]> customFields = new HashMap<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add a test case as the next row.
+         *
+         * @param testCase the test case
+         * @return this for chaining
+         * @throws NullPointerException if testCase is null
+         */
+        public Builder add(@NonNull Case testCase) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = testCase.getId();
+            sectionIds[size] = testCase.getSectionId();
+            suiteIds[size] = testCase.getSuiteId();
+            templateIds[size] = testCase.getTemplateId();
+            typeIds[size] = toId(testCase.getTypeId());
+            priorityIds[size] = toId(testCase.getPriorityId());
+            milestoneIds[size] = toId(testCase.getMilestoneId());
+            createdBy[size] = testCase.getCreatedBy();
+            updatedBy[size] = testCase.getUpdatedBy();
+            createdOn[size] = toTimestamp(testCase.getCreatedOn());
+            updatedOn[size] = toTimestamp(testCase.getUpdatedOn());
+            titles[size] = toIndex(testCase.getTitle());
+            refs[size] = toIndex(testCase.getRefs());
+            estimates[size] = toIndex(testCase.getEstimate());
+            estimateForecasts[size] = toIndex(testCase.getEstimateForecast());
+            for (Map.Entry<String, Object> customField : testCase.getCustomFields().entrySet()) {
+                Object[] column = customFields.computeIfAbsent(customField.getKey(), key -> new Object[ids.length]);
+                column[size] = customField.getValue();
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Build the table of the test cases added so far.
+         *
+         * @return the table
+         */
+        public CaseTable build() {
+            return new CaseTable(this);
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            sectionIds = Arrays.copyOf(sectionIds, capacity);
+            suiteIds = Arrays.copyOf(suiteIds, capacity);
+            templateIds = Arrays.copyOf(templateIds, capacity);
+            typeIds = Arrays.copyOf(typeIds, capacity);
+            priorityIds = Arrays.copyOf(priorityIds, capacity);
+            milestoneIds = Arrays.copyOf(milestoneIds, capacity);
+            createdBy = Arrays.copyOf(createdBy, capacity);
+            updatedBy = Arrays.copyOf(updatedBy, capacity);
+            createdOn = Arrays.copyOf(createdOn, capacity);
+            updatedOn = Arrays.copyOf(updatedOn, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            refs = Arrays.copyOf(refs, capacity);
+            estimates = Arrays.copyOf(estimates, capacity);
+            estimateForecasts = Arrays.copyOf(estimateForecasts, capacity);
+            customFields.replaceAll((key, column) -> Arrays.copyOf(column, capacity));
+        }
+
+        private int toIndex(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            Integer index = dictionary.putIfAbsent(value, dictionary.size());
+            return index == null ? dictionary.size() - 1 : index;
+        }
+
+        private static int toId(Integer id) {
+            return id == null ? NULL_ID : id;
+        }
+
+        private static long toTimestamp(Date date) {
+            return date == null ? NULL_TIMESTAMP : date.getTime();
+        }
+    }
+}
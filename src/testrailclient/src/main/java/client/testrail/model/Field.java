@@ -114,8 +114,10 @@ public class Field {
         @Getter
         private final TypeReference<?> typeReference;
 
+        private static final Type[] TYPES = values();
+
         public static Type getType(int typeId) {
-            return typeId >= 0 && typeId < Type.values().length ? Type.values()[typeId] : UNKNOWN;
+            return typeId >= 0 && typeId < TYPES.length ? TYPES[typeId] : UNKNOWN;
         }
 
     }
@@ -1,6 +1,7 @@
 package client.testrail.model;
 
 import client.testrail.internal.PageDeserializer;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonDeserialize(using = PageDeserializer.class)
@@ -12,7 +13,8 @@ public class Page<T> {
 
     public int size;
 
-    public Links _links;
+    @JsonProperty("_links")
+    public Links links;
 
     public T objects;
 }
@@ -0,0 +1,39 @@
+package client.testrail.sync;
+
+import java.util.Collection;
+import client.testrail.model.Case;
+
+/**
+ * Local copy of the test cases of TestRail suites, kept up to date by {@link CaseSync}.
+ * <p>The sync state of a suite is stored together with its test cases, so that a persistent store resumes from where the
+ * last sync stopped. Implementations only need to be safe for use by one {@code CaseSync} at a time.</p>
+ */
+public interface CaseStore {
+
+    /**
+     * Get the sync state of a suite.
+     *
+     * @param suiteId the ID of the suite
+     * @return the state, or {@code null} if the suite was never synced into this store
+     */
+    SyncState getState(int suiteId);
+
+    /**
+     * Add or replace test cases of a suite which changed in TestRail, and save the new sync state.
+     *
+     * @param suiteId      the ID of the suite
+     * @param changedCases the added or updated test cases, matched to stored test cases by ID
+     * @param state        the sync state after these changes
+     */
+    void update(int suiteId, Collection<Case> changedCases, SyncState state);
+
+    /**
+     * Replace all test cases of a suite with the result of a full scan, which drops test cases deleted in TestRail, and
+     * save the new sync state.
+     *
+     * @param suiteId the ID of the suite
+     * @param cases   all test cases of the suite
+     * @param state   the sync state after the full scan
+     */
+    void replace(int suiteId, Collection<Case> cases, SyncState state);
+}
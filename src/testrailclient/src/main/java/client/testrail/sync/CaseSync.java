@@ -0,0 +1,124 @@
+package client.testrail.sync;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import client.testrail.TestRail;
+import client.testrail.model.Case;
+import client.testrail.model.CaseFieldSchema;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Keeps a {@link CaseStore} in sync with the test cases of a TestRail suite, fetching only the test cases updated since the
+ * last sync.
+ * <p>Each sync lists the test cases updated after the high-water mark of {@link Case#getUpdatedOn()} stored with the suite
+ * and merges them into the store. TestRail does not report deleted test cases this way, so every
+ * {@link #fullScanInterval(Duration) full scan interval} the sync lists the whole suite instead and replaces the stored
+ * test cases, which also happens on the first sync of a suite.</p>
+ */
+public class CaseSync {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseSync.class);
+
+    private static final Duration DEFAULT_FULL_SCAN_INTERVAL = Duration.ofHours(24);
+    // TestRail timestamps have a resolution of seconds, so a test case updated in the same second as the watermark after
+    // the last sync would be missed by a strict "after"
+    private static final long WATERMARK_OVERLAP_MILLIS = 1000;
+    private static final int FULL_SCAN_PREFETCHED_PAGES = 4;
+
+    private final TestRail testRail;
+    private final int projectId;
+    private final int suiteId;
+    private final CaseFieldSchema caseFieldSchema;
+    private final CaseStore store;
+    private Duration fullScanInterval = DEFAULT_FULL_SCAN_INTERVAL;
+
+    /**
+     * @param testRail        the client to fetch test cases with
+     * @param projectId       the ID of the project
+     * @param suiteId         the ID of the suite to sync
+     * @param caseFieldSchema the schema of the custom case fields configured in TestRail
+     * @param store           the store to sync the test cases into
+     * @throws IllegalArgumentException if projectId or suiteId is not positive
+     * @throws NullPointerException     if any other argument is null
+     */
+    public CaseSync(@NonNull TestRail testRail, int projectId, int suiteId, @NonNull CaseFieldSchema caseFieldSchema,
+                    @NonNull CaseStore store) {
+        checkArgument(projectId > 0, "projectId should be positive");
+        checkArgument(suiteId > 0, "suiteId should be positive");
+        this.testRail = testRail;
+        this.projectId = projectId;
+        this.suiteId = suiteId;
+        this.caseFieldSchema = caseFieldSchema;
+        this.store = store;
+    }
+
+    /**
+     * Set how often the whole suite is listed to drop deleted test cases from the store. Defaults to 24 hours.
+     *
+     * @param fullScanInterval the time between full scans
+     * @return this for chaining
+     * @throws NullPointerException if fullScanInterval is null
+     */
+    public CaseSync fullScanInterval(@NonNull Duration fullScanInterval) {
+        this.fullScanInterval = fullScanInterval;
+        return this;
+    }
+
+    /**
+     * Sync the store with TestRail, with a full scan if the suite was never synced or the full scan interval has passed,
+     * and with the test cases updated since the last sync otherwise.
+     *
+     * @return the number of test cases fetched from TestRail
+     */
+    public synchronized int sync() {
+        SyncState state = store.getState(suiteId);
+        if (state == null || state.getWatermark() == null || state.getLastFullScan() == null
+                || !Instant.now().isBefore(state.getLastFullScan().toInstant().plus(fullScanInterval))) {
+            return fullScan();
+        }
+        Date syncStart = new Date();
+        List<Case> changedCases = testRail.cases().list(projectId, suiteId, caseFieldSchema)
+                .withUpdatedAfter(new Date(state.getWatermark().getTime() - WATERMARK_OVERLAP_MILLIS))
+                .execute();
+        Date watermark = getWatermark(changedCases, state.getWatermark(), syncStart);
+        store.update(suiteId, changedCases, new SyncState(watermark, state.getLastFullScan()));
+        log.debug("Synced " + changedCases.size() + " test cases of suite " + suiteId + " updated after " + state.getWatermark());
+        return changedCases.size();
+    }
+
+    /**
+     * Sync the store with TestRail by listing the whole suite, regardless of the full scan interval.
+     *
+     * @return the number of test cases fetched from TestRail
+     */
+    public synchronized int fullScan() {
+        Date scanStart = new Date();
+        List<Case> cases = testRail.cases().list(projectId, suiteId, caseFieldSchema)
+                .withPrefetch(FULL_SCAN_PREFETCHED_PAGES)
+                .execute();
+        store.replace(suiteId, cases, new SyncState(getWatermark(cases, null, scanStart), scanStart));
+        log.debug("Synced all " + cases.size() + " test cases of suite " + suiteId);
+        return cases.size();
+    }
+
+    /**
+     * Get the watermark after fetching test cases: the latest time they were updated, but no later than the start of the
+     * listing. A test case updated while the pages were fetched may be missing from the pages fetched before, while a later
+     * page has a test case updated after it, so the next sync has to start no later than this listing did.
+     */
+    private static Date getWatermark(List<Case> cases, Date watermark, Date listingStart) {
+        Date latest = watermark;
+        for (Case testCase : cases) {
+            Date updatedOn = testCase.getUpdatedOn();
+            if (updatedOn != null && (latest == null || updatedOn.after(latest))) {
+                latest = updatedOn;
+            }
+        }
+        return latest != null && latest.after(listingStart) ? listingStart : latest;
+    }
+}
@@ -0,0 +1,77 @@
+package client.testrail.sync;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import client.testrail.model.Case;
+
+/**
+ * {@link CaseStore} which keeps test cases in memory, for e.g. for a process which refreshes its view of a suite
+ * periodically.
+ */
+public class InMemoryCaseStore implements CaseStore {
+
+    private final Map<Integer, Suite> suites = new ConcurrentHashMap<>();
+
+    @Override
+    public SyncState getState(int suiteId) {
+        Suite suite = suites.get(suiteId);
+        return suite == null ? null : suite.state;
+    }
+
+    @Override
+    public void update(int suiteId, Collection<Case> changedCases, SyncState state) {
+        Map<Integer, Case> cases = new LinkedHashMap<>(getCaseMap(suiteId));
+        for (Case testCase : changedCases) {
+            cases.put(testCase.getId(), testCase);
+        }
+        suites.put(suiteId, new Suite(Collections.unmodifiableMap(cases), state));
+    }
+
+    @Override
+    public void replace(int suiteId, Collection<Case> cases, SyncState state) {
+        Map<Integer, Case> replacement = new LinkedHashMap<>();
+        for (Case testCase : cases) {
+            replacement.put(testCase.getId(), testCase);
+        }
+        suites.put(suiteId, new Suite(Collections.unmodifiableMap(replacement), state));
+    }
+
+    /**
+     * Get the stored test cases of a suite. The returned collection is a snapshot which is not changed by later syncs.
+     *
+     * @param suiteId the ID of the suite
+     * @return the test cases, empty if the suite was never synced
+     */
+    public Collection<Case> getCases(int suiteId) {
+        return getCaseMap(suiteId).values();
+    }
+
+    /**
+     * Get a stored test case.
+     *
+     * @param suiteId    the ID of the suite
+     * @param testCaseId the ID of the test case
+     * @return the test case, or {@code null} if it is not stored
+     */
+    public Case getCase(int suiteId, int testCaseId) {
+        return getCaseMap(suiteId).get(testCaseId);
+    }
+
+    private Map<Integer, Case> getCaseMap(int suiteId) {
+        Suite suite = suites.get(suiteId);
+        return suite == null ? Collections.emptyMap() : suite.cases;
+    }
+
+    private static class Suite {
+        private final Map<Integer, Case> cases;
+        private final SyncState state;
+
+        Suite(Map<Integer, Case> cases, SyncState state) {
+            this.cases = cases;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,564 @@
+package client.testrail.sync;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import client.testrail.TestRail;
+import client.testrail.internal.ObjectMapperFactory;
+import client.testrail.model.Case;
+import client.testrail.model.CaseFieldSchema;
+import client.testrail.model.Section;
+import com.fasterxml.jackson.databind.InjectableValues;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.google.common.base.CharMatcher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.SetMultimap;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Local mirror of the sections and test cases of a TestRail suite, kept in a file so that it survives restarts, and
+ * indexed to answer lookups by test case ID, section and title without calls to TestRail.
+ * <p>The file holds a snapshot of the suite in a compact binary format, followed by the changes of the delta syncs and
+ * of the sections since then, which are appended. Sections are only appended when they changed. Every
+ * {@link CaseSync full scan} rewrites the snapshot. A change which was only partly written, for e.g. when the process was
+ * killed, is dropped on load together with the sync state after it, so the next sync fetches it again. Changes are
+ * written to the file before they are applied in memory.</p>
+ * <p>The mirror is safe for concurrent lookups while it is refreshed. Returned test cases and sections are shared by all
+ * callers, so do not modify them.</p>
+ */
+public class SuiteMirror implements CaseStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SuiteMirror.class);
+
+    private static final ObjectMapper JSON = ObjectMapperFactory.getObjectMapper();
+    private static final int MAGIC = 0x54524D53;
+    private static final int FORMAT_VERSION = 1;
+    private static final byte STATE_RECORD = 1;
+    private static final byte SECTIONS_RECORD = 2;
+    private static final byte CASES_RECORD = 3;
+    private static final int NULL_ID = 0;
+    private static final long NULL_DATE = Long.MIN_VALUE;
+    private static final int NULL_LENGTH = -1;
+    private static final String CUSTOM_FIELD_KEY_PREFIX = "custom_";
+
+    private final Path file;
+    private final int projectId;
+    private final int suiteId;
+    private final CaseFieldSchema caseFieldSchema;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Case> cases = new LinkedHashMap<>();
+    private final SetMultimap<Integer, Integer> caseIdsBySection = LinkedHashMultimap.create();
+    private final SetMultimap<String, Integer> caseIdsByTitle = LinkedHashMultimap.create();
+    private Map<Integer, Section> sections = new LinkedHashMap<>();
+    private SyncState state;
+    private Duration fullScanInterval = Duration.ofHours(24);
+
+    private SuiteMirror(Path file, int projectId, int suiteId, CaseFieldSchema caseFieldSchema) {
+        this.file = file;
+        this.projectId = projectId;
+        this.suiteId = suiteId;
+        this.caseFieldSchema = caseFieldSchema;
+    }
+
+    /**
+     * Open the mirror of a suite, loading it from its file if the file exists.
+     *
+     * @param file            the file of the mirror, which is created by the first sync
+     * @param projectId       the ID of the project
+     * @param suiteId         the ID of the suite
+     * @param caseFieldSchema the schema of the custom case fields configured in TestRail
+     * @return the mirror
+     * @throws IOException              if the file cannot be read or is not a mirror of this suite
+     * @throws IllegalArgumentException if projectId or suiteId is not positive
+     * @throws NullPointerException     if file or caseFieldSchema is null
+     */
+    public static SuiteMirror open(@NonNull Path file, int projectId, int suiteId, @NonNull CaseFieldSchema caseFieldSchema)
+            throws IOException {
+        checkArgument(projectId > 0, "projectId should be positive");
+        checkArgument(suiteId > 0, "suiteId should be positive");
+        SuiteMirror mirror = new SuiteMirror(file, projectId, suiteId, caseFieldSchema);
+        if (Files.exists(file)) {
+            mirror.load();
+        }
+        return mirror;
+    }
+
+    /**
+     * Set how often {@link #refresh(TestRail)} lists the whole suite to drop deleted test cases. Defaults to 24 hours.
+     *
+     * @param fullScanInterval the time between full scans
+     * @return this for chaining
+     * @throws NullPointerException if fullScanInterval is null
+     * @see CaseSync#fullScanInterval(Duration)
+     */
+    public SuiteMirror fullScanInterval(@NonNull Duration fullScanInterval) {
+        this.fullScanInterval = fullScanInterval;
+        return this;
+    }
+
+    /**
+     * Refresh the mirror from TestRail: all sections, which are few, and the test cases updated since the last refresh.
+     *
+     * @param testRail the client to fetch with
+     * @return the number of test cases fetched from TestRail
+     * @see CaseSync#sync()
+     */
+    public int refresh(@NonNull TestRail testRail) {
+        replaceSections(testRail.sections().list(projectId, suiteId).execute());
+        return new CaseSync(testRail, projectId, suiteId, caseFieldSchema, this).fullScanInterval(fullScanInterval).sync();
+    }
+
+    /**
+     * Get a test case.
+     *
+     * @param testCaseId the ID of the test case
+     * @return the test case, or {@code null} if it is not in the mirror
+     */
+    public Case getCase(int testCaseId) {
+        lock.readLock().lock();
+        try {
+            return cases.get(testCaseId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get all test cases of the suite.
+     *
+     * @return the test cases
+     */
+    public List<Case> getCases() {
+        lock.readLock().lock();
+        try {
+            return ImmutableList.copyOf(cases.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the test cases directly in a section, not in its subsections.
+     *
+     * @param sectionId the ID of the section
+     * @return the test cases, empty if there are none
+     */
+    public List<Case> getCasesInSection(int sectionId) {
+        lock.readLock().lock();
+        try {
+            return getCases(caseIdsBySection.get(sectionId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the test cases with a title, ignoring case and differences in whitespace.
+     *
+     * @param title the title
+     * @return the test cases, empty if there are none
+     * @throws NullPointerException if title is null
+     */
+    public List<Case> findCasesByTitle(@NonNull String title) {
+        lock.readLock().lock();
+        try {
+            return getCases(caseIdsByTitle.get(normalizeTitle(title)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a section.
+     *
+     * @param sectionId the ID of the section
+     * @return the section, or {@code null} if it is not in the mirror
+     */
+    public Section getSection(int sectionId) {
+        lock.readLock().lock();
+        try {
+            return sections.get(sectionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get all sections of the suite.
+     *
+     * @return the sections
+     */
+    public List<Section> getSections() {
+        lock.readLock().lock();
+        try {
+            return ImmutableList.copyOf(sections.values());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SyncState getState(int suiteId) {
+        checkSuite(suiteId);
+        lock.readLock().lock();
+        try {
+            return state;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(int suiteId, Collection<Case> changedCases, SyncState state) {
+        checkSuite(suiteId);
+        lock.writeLock().lock();
+        try {
+            append(out -> {
+                writeCases(out, changedCases);
+                writeState(out, state);
+            });
+            putCases(changedCases);
+            this.state = state;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void replace(int suiteId, Collection<Case> cases, SyncState state) {
+        checkSuite(suiteId);
+        lock.writeLock().lock();
+        try {
+            writeSnapshot(sections.values(), cases, state);
+            this.cases.clear();
+            caseIdsBySection.clear();
+            caseIdsByTitle.clear();
+            putCases(cases);
+            this.state = state;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace all sections of the suite. The sections are only written to the file if they changed.
+     *
+     * @param sections the sections
+     */
+    public void replaceSections(@NonNull Collection<Section> sections) {
+        lock.writeLock().lock();
+        try {
+            Map<Integer, Section> replacement = indexSections(sections);
+            if (replacement.equals(this.sections)) {
+                return;
+            }
+            append(out -> writeSections(out, replacement.values()));
+            this.sections = replacement;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void checkSuite(int suiteId) {
+        checkArgument(suiteId == this.suiteId, "this is the mirror of suite %s, not %s", this.suiteId, suiteId);
+    }
+
+    private List<Case> getCases(Collection<Integer> testCaseIds) {
+        ImmutableList.Builder<Case> found = ImmutableList.builder();
+        for (Integer testCaseId : testCaseIds) {
+            found.add(cases.get(testCaseId));
+        }
+        return found.build();
+    }
+
+    private void putCases(Collection<Case> changedCases) {
+        for (Case testCase : changedCases) {
+            Case previous = cases.put(testCase.getId(), testCase);
+            if (previous != null) {
+                caseIdsBySection.remove(previous.getSectionId(), previous.getId());
+                if (previous.getTitle() != null) {
+                    caseIdsByTitle.remove(normalizeTitle(previous.getTitle()), previous.getId());
+                }
+            }
+            caseIdsBySection.put(testCase.getSectionId(), testCase.getId());
+            if (testCase.getTitle() != null) {
+                caseIdsByTitle.put(normalizeTitle(testCase.getTitle()), testCase.getId());
+            }
+        }
+    }
+
+    private static Map<Integer, Section> indexSections(Collection<Section> sections) {
+        Map<Integer, Section> indexed = new LinkedHashMap<>();
+        for (Section section : sections) {
+            indexed.put(section.getId(), section);
+        }
+        return indexed;
+    }
+
+    private static String normalizeTitle(String title) {
+        return CharMatcher.whitespace().trimAndCollapseFrom(title, ' ').toLowerCase(Locale.ROOT);
+    }
+
+    private void load() throws IOException {
+        ObjectReader customFieldReader = JSON.readerFor(Case.class)
+                .with(new InjectableValues.Std().addValue(Case.class.toString(), caseFieldSchema));
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != projectId || in.readInt() != suiteId) {
+                throw new IOException(file + " is not a mirror of suite " + suiteId + " of project " + projectId);
+            }
+            // changes are applied once the sync state after them is read, so a partly written change is dropped
+            List<Case> pendingCases = new ArrayList<>();
+            Collection<Section> pendingSections = null;
+            boolean complete = true;
+            try {
+                for (int recordType = in.read(); recordType != -1; recordType = in.read()) {
+                    if (recordType == STATE_RECORD) {
+                        state = readState(in);
+                        putCases(pendingCases);
+                        pendingCases.clear();
+                    } else if (recordType == SECTIONS_RECORD) {
+                        pendingSections = readSections(in);
+                    } else if (recordType == CASES_RECORD) {
+                        pendingCases.addAll(readCases(in, customFieldReader));
+                    } else {
+                        throw new IOException("Unknown record type " + recordType + " in " + file);
+                    }
+                }
+            } catch (EOFException e) {
+                log.warn("Dropping partly written change at the end of " + file);
+                complete = false;
+            }
+            if (pendingSections != null) {
+                sections = indexSections(pendingSections);
+            }
+            if (complete && !pendingCases.isEmpty()) {
+                log.warn("Dropping changes without sync state at the end of " + file);
+                complete = false;
+            }
+            if (complete) {
+                return;
+            }
+        }
+        // rewrite the file so that further changes are not appended after a dropped one
+        writeSnapshot(sections.values(), cases.values(), state);
+    }
+
+    private void writeSnapshot(Collection<Section> sections, Collection<Case> cases, SyncState state) {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(projectId);
+                out.writeInt(suiteId);
+                writeSections(out, sections);
+                writeCases(out, cases);
+                if (state != null) {
+                    writeState(out, state);
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Append a change to the file, before it is applied in memory, so that memory never has a change the file misses.
+     */
+    private void append(RecordWriter writer) {
+        if (!Files.exists(file)) {
+            writeSnapshot(sections.values(), cases.values(), state);
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeState(DataOutputStream out, SyncState state) throws IOException {
+        out.writeByte(STATE_RECORD);
+        writeDate(out, state.getWatermark());
+        writeDate(out, state.getLastFullScan());
+    }
+
+    private static SyncState readState(DataInputStream in) throws IOException {
+        return new SyncState(readDate(in), readDate(in));
+    }
+
+    private static void writeSections(DataOutputStream out, Collection<Section> sections) throws IOException {
+        out.writeByte(SECTIONS_RECORD);
+        out.writeInt(sections.size());
+        for (Section section : sections) {
+            out.writeInt(section.getId());
+            writeString(out, section.getName());
+            writeString(out, section.getDescription());
+            writeId(out, section.getSuiteId());
+            writeId(out, section.getParentId());
+            out.writeInt(section.getDepth());
+            out.writeInt(section.getDisplayOrder());
+        }
+    }
+
+    private static List<Section> readSections(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<Section> sections = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            sections.add(new Section()
+                    .setId(in.readInt())
+                    .setName(readString(in))
+                    .setDescription(readString(in))
+                    .setSuiteId(readId(in))
+                    .setParentId(readId(in))
+                    .setDepth(in.readInt())
+                    .setDisplayOrder(in.readInt()));
+        }
+        return sections;
+    }
+
+    private static void writeCases(DataOutputStream out, Collection<Case> cases) throws IOException {
+        out.writeByte(CASES_RECORD);
+        out.writeInt(cases.size());
+        for (Case testCase : cases) {
+            out.writeInt(testCase.getId());
+            writeString(out, testCase.getTitle());
+            out.writeInt(testCase.getSectionId());
+            out.writeInt(testCase.getTemplateId());
+            writeId(out, testCase.getTypeId());
+            writeId(out, testCase.getPriorityId());
+            writeId(out, testCase.getMilestoneId());
+            writeString(out, testCase.getRefs());
+            out.writeInt(testCase.getCreatedBy());
+            writeDate(out, testCase.getCreatedOn());
+            out.writeInt(testCase.getUpdatedBy());
+            writeDate(out, testCase.getUpdatedOn());
+            writeString(out, testCase.getEstimate());
+            writeString(out, testCase.getEstimateForecast());
+            out.writeInt(testCase.getSuiteId());
+            writeCustomFields(out, testCase.getCustomFields());
+        }
+    }
+
+    private static List<Case> readCases(DataInputStream in, ObjectReader customFieldReader) throws IOException {
+        int count = in.readInt();
+        List<Case> cases = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Case testCase = new Case()
+                    .setId(in.readInt())
+                    .setTitle(readString(in))
+                    .setSectionId(in.readInt())
+                    .setTemplateId(in.readInt())
+                    .setTypeId(readId(in))
+                    .setPriorityId(readId(in))
+                    .setMilestoneId(readId(in))
+                    .setRefs(readString(in))
+                    .setCreatedBy(in.readInt())
+                    .setCreatedOn(readDate(in))
+                    .setUpdatedBy(in.readInt())
+                    .setUpdatedOn(readDate(in))
+                    .setEstimate(readString(in))
+                    .setEstimateForecast(readString(in))
+                    .setSuiteId(in.readInt());
+            cases.add(readCustomFields(in, customFieldReader, testCase));
+        }
+        return cases;
+    }
+
+    /**
+     * Custom fields are written as the JSON object TestRail sends, so that they are read back with the same deserializers.
+     */
+    private static void writeCustomFields(DataOutputStream out, Map<String, Object> customFields) throws IOException {
+        if (customFields.isEmpty()) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> customField : customFields.entrySet()) {
+            json.put(CUSTOM_FIELD_KEY_PREFIX + customField.getKey(), customField.getValue());
+        }
+        byte[] bytes = JSON.writeValueAsBytes(json);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static Case readCustomFields(DataInputStream in, ObjectReader customFieldReader, Case testCase) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return testCase;
+        }
+        byte[] json = new byte[length];
+        in.readFully(json);
+        return customFieldReader.withValueToUpdate(testCase).readValue(json);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeId(DataOutputStream out, Integer id) throws IOException {
+        out.writeInt(id == null ? NULL_ID : id);
+    }
+
+    private static Integer readId(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        return id == NULL_ID ? null : id;
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeLong(date == null ? NULL_DATE : date.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        return time == NULL_DATE ? null : new Date(time);
+    }
+
+    /**
+     * Writer of records appended to the file.
+     */
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,23 @@
+package client.testrail.sync;
+
+import java.util.Date;
+import lombok.Value;
+
+/**
+ * Progress of the sync of a suite into a {@link CaseStore}.
+ */
+@Value
+public class SyncState {
+
+    /**
+     * The latest {@link client.testrail.model.Case#getUpdatedOn()} seen so far, or {@code null} if the suite has no test
+     * cases. Test cases updated after it are fetched by the next delta sync.
+     */
+    Date watermark;
+
+    /**
+     * The time of the last full scan, which also picks up deleted test cases, or {@code null} if it is not known, which
+     * makes the next sync a full scan.
+     */
+    Date lastFullScan;
+}
@@ -0,0 +1,84 @@
+package client.testrail.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import lombok.NonNull;
+
+/**
+ * {@link Transport} backed by a single {@link HttpClient}.
+ * <p>The client keeps connections alive between requests and multiplexes concurrent requests over HTTP/2 when the server
+ * supports it, falling back to HTTP/1.1 otherwise.</p>
+ */
+class HttpClientTransport implements Transport {
+
+    private final HttpClient httpClient;
+    private final Duration readTimeout;
+
+    HttpClientTransport(@NonNull Duration connectTimeout, @NonNull Duration readTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.readTimeout = readTimeout;
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.getUrl())).timeout(readTimeout);
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        if (request.getBody() != null) {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.ofByteArray(request.getBody()));
+        } else {
+            builder.method(request.getMethod(), HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            return new Response(httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response from " + request.getUrl());
+        }
+    }
+
+    private static class Response implements TransportResponse {
+        private final HttpResponse<InputStream> response;
+
+        Response(HttpResponse<InputStream> response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public Optional<String> getHeader(String name) {
+            return response.headers().firstValue(name);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.body();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the connection only goes back to the pool once the body has been read to the end
+            try (InputStream body = response.body()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package client.testrail.transport;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Transport used to send requests to TestRail over HTTP.
+ * <p>Implementations are shared by all requests created from one {@code TestRail} instance, so they must be thread-safe.</p>
+ */
+public interface Transport {
+
+    /**
+     * Send a request and wait for the response status and headers.
+     *
+     * @param request the request to be sent
+     * @return the response; the caller is responsible for closing it
+     * @throws IOException if there is an error while communicating with the server
+     */
+    TransportResponse send(TransportRequest request) throws IOException;
+
+    /**
+     * Create a transport backed by a shared {@link java.net.http.HttpClient} which pools connections and uses HTTP/2 when
+     * the server supports it.
+     *
+     * @param connectTimeout the timeout to establish a connection
+     * @param readTimeout    the timeout to receive the response headers
+     * @return a new transport
+     */
+    static Transport httpClient(Duration connectTimeout, Duration readTimeout) {
+        return new HttpClientTransport(connectTimeout, readTimeout);
+    }
+
+    /**
+     * Create a transport which opens a new {@link java.net.HttpURLConnection} for each request.
+     *
+     * @param connectTimeout the timeout to establish a connection
+     * @param readTimeout    the timeout to read from an established connection
+     * @return a new transport
+     */
+    static Transport urlConnection(Duration connectTimeout, Duration readTimeout) {
+        return new UrlConnectionTransport(connectTimeout, readTimeout);
+    }
+}
@@ -0,0 +1,30 @@
+package client.testrail.transport;
+
+import java.util.Map;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * HTTP request to be sent by a {@link Transport}.
+ */
+@Value
+public class TransportRequest {
+
+    /**
+     * HTTP method, either {@code GET} or {@code POST}.
+     */
+    @NonNull
+    String method;
+
+    @NonNull
+    String url;
+
+    @NonNull
+    Map<String, String> headers;
+
+    /**
+     * Request body or {@code null} if there is nothing to send.
+     */
+    byte[] body;
+
+}
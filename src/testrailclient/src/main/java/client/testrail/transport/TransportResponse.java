@@ -0,0 +1,37 @@
+package client.testrail.transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * HTTP response received by a {@link Transport}.
+ * <p>Closing the response releases the underlying connection, so it can be reused for subsequent requests.</p>
+ */
+public interface TransportResponse extends Closeable {
+
+    /**
+     * Get the HTTP status code.
+     *
+     * @return the status code
+     */
+    int getStatusCode();
+
+    /**
+     * Get the first value of a response header.
+     *
+     * @param name the case-insensitive name of the header
+     * @return the value, if present
+     */
+    Optional<String> getHeader(String name);
+
+    /**
+     * Get the response body. For unsuccessful responses this is the error body sent by the server.
+     *
+     * @return the body stream, which is empty if the server did not send any content
+     * @throws IOException if the body can not be read
+     */
+    InputStream getBody() throws IOException;
+
+}
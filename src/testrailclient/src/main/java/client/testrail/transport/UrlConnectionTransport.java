@@ -0,0 +1,91 @@
+package client.testrail.transport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import client.testrail.internal.UrlConnectionFactory;
+import lombok.NonNull;
+
+/**
+ * {@link Transport} which opens a new {@link HttpURLConnection} for each request.
+ */
+class UrlConnectionTransport implements Transport {
+
+    private final UrlConnectionFactory urlConnectionFactory = new UrlConnectionFactory();
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+
+    UrlConnectionTransport(@NonNull Duration connectTimeout, @NonNull Duration readTimeout) {
+        this.connectTimeoutMillis = Math.toIntExact(connectTimeout.toMillis());
+        this.readTimeoutMillis = Math.toIntExact(readTimeout.toMillis());
+    }
+
+    @Override
+    public TransportResponse send(TransportRequest request) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) urlConnectionFactory.getUrlConnection(request.getUrl());
+        con.setConnectTimeout(connectTimeoutMillis);
+        con.setReadTimeout(readTimeoutMillis);
+        con.setRequestMethod(request.getMethod());
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            con.setRequestProperty(header.getKey(), header.getValue());
+        }
+        if ("POST".equals(request.getMethod())) {
+            con.setDoOutput(true);
+            if (request.getBody() != null) {
+                con.setFixedLengthStreamingMode(request.getBody().length);
+                try (OutputStream outputStream = con.getOutputStream()) {
+                    outputStream.write(request.getBody());
+                }
+            } else {
+                con.setFixedLengthStreamingMode(0);
+            }
+        }
+        int responseCode;
+        try {
+            responseCode = con.getResponseCode();
+        } catch (IOException e) {
+            // swallow it since for 401 getResponseCode throws an IOException
+            responseCode = con.getResponseCode();
+        }
+        return new Response(con, responseCode);
+    }
+
+    private static class Response implements TransportResponse {
+        private final HttpURLConnection con;
+        private final int statusCode;
+        private InputStream body;
+
+        Response(HttpURLConnection con, int statusCode) {
+            this.con = con;
+            this.statusCode = statusCode;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public Optional<String> getHeader(String name) {
+            return Optional.ofNullable(con.getHeaderField(name));
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream stream = statusCode >= HttpURLConnection.HTTP_BAD_REQUEST ? con.getErrorStream() : con.getInputStream();
+                body = stream == null ? InputStream.nullInputStream() : stream;
+            }
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            getBody().close();
+        }
+    }
+}
@@ -0,0 +1,710 @@
+package client.testrail.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * In-memory stand-in for the TestRail API v2, served over HTTP from a local socket, for load and failure testing of
+ * TestRail clients without a TestRail instance.
+ * <p>It implements the endpoints used by this project: {@code get_case}, {@code get_cases} with pagination and filters,
+ * {@code add_case}, {@code update_case}, {@code delete_case}, {@code update_cases}, {@code delete_cases},
+ * {@code move_cases_to_section}, {@code get_section}, {@code get_sections}, {@code add_section}, {@code update_section},
+ * {@code delete_section}, {@code move_section}, {@code get_suite}, {@code get_suites}, {@code add_suite},
+ * {@code update_suite}, {@code delete_suite}, {@code get_project} and {@code get_case_fields}. Invalid IDs and missing
+ * required fields are answered with {@code 400} and a TestRail style error, like TestRail does.</p>
+ * <p>Each request can be delayed by a random {@link #latency(Duration, Duration) latency}, and answered at configurable
+ * rates with {@code 500} or with {@code 429} and a {@code Retry-After} header, to see how a client copes with a slow or
+ * failing TestRail.</p>
+ * <pre>{@code
+ * try (TestRailSimulator simulator = TestRailSimulator.start().latency(Duration.ofMillis(20), Duration.ofMillis(80))) {
+ *     int sectionId = simulator.addSection(simulator.addSuite(1, "Master"), null, "Login");
+ *     TestRail testRail = TestRail.builder(simulator.getEndPoint(), "user", "password").build();
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class TestRailSimulator implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final String API_PATH = "/api/v2/";
+    private static final int MAX_PAGE_SIZE = 250;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final Set<String> CASE_FIELDS = ImmutableSet.of("title", "template_id", "type_id", "priority_id",
+            "estimate", "milestone_id", "refs");
+    private static final Set<String> CASE_FILTERS = ImmutableSet.of("section_id", "template_id", "type_id", "priority_id",
+            "milestone_id", "created_by", "updated_by");
+    private static final Splitter QUERY_SPLITTER = Splitter.on('&').omitEmptyStrings();
+    private static final Splitter CSV_SPLITTER = Splitter.on(',').trimResults().omitEmptyStrings();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<Integer, ObjectNode> suites = new TreeMap<>();
+    private final Map<Integer, ObjectNode> sections = new TreeMap<>();
+    private final Map<Integer, ObjectNode> cases = new TreeMap<>();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong injectedTooManyRequests = new AtomicLong();
+    private ArrayNode caseFields = JSON.createArrayNode();
+    private int lastSuiteId;
+    private int lastSectionId;
+    private int lastCaseId;
+    private volatile Duration minLatency = Duration.ZERO;
+    private volatile Duration maxLatency = Duration.ZERO;
+    private volatile double errorRate;
+    private volatile double tooManyRequestsRate;
+    private volatile Duration retryAfter = Duration.ofSeconds(1);
+
+    private TestRailSimulator() throws IOException {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Start a simulator with no data, no latency and no failures on a free local port.
+     *
+     * @return the running simulator
+     * @throws IOException if the server socket cannot be opened
+     */
+    public static TestRailSimulator start() throws IOException {
+        return new TestRailSimulator();
+    }
+
+    /**
+     * Get the URL to build a TestRail client with, for e.g. {@code http://127.0.0.1:49152}.
+     *
+     * @return the end point of this simulator
+     */
+    public String getEndPoint() {
+        return "http://" + server.getAddress().getAddress().getHostAddress() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Delay each request by a latency picked uniformly between a minimum and a maximum.
+     *
+     * @param min the minimum latency
+     * @param max the maximum latency
+     * @return this for chaining
+     * @throws IllegalArgumentException if min is negative or max is less than min
+     */
+    public TestRailSimulator latency(Duration min, Duration max) {
+        checkArgument(!min.isNegative() && max.compareTo(min) >= 0, "latency should be non-negative with min <= max");
+        minLatency = min;
+        maxLatency = max;
+        return this;
+    }
+
+    /**
+     * Answer this fraction of the requests with {@code 500 Internal Server Error}.
+     *
+     * @param errorRate the fraction of failed requests, from 0 to 1
+     * @return this for chaining
+     * @throws IllegalArgumentException if errorRate is not between 0 and 1
+     */
+    public TestRailSimulator errorRate(double errorRate) {
+        checkArgument(errorRate >= 0 && errorRate <= 1, "errorRate should be between 0 and 1");
+        this.errorRate = errorRate;
+        return this;
+    }
+
+    /**
+     * Answer this fraction of the requests with {@code 429 Too Many Requests}, as TestRail does when its API rate limit
+     * is exceeded.
+     *
+     * @param tooManyRequestsRate the fraction of rejected requests, from 0 to 1
+     * @param retryAfter          the time to send in the {@code Retry-After} header, in whole seconds
+     * @return this for chaining
+     * @throws IllegalArgumentException if tooManyRequestsRate is not between 0 and 1 or retryAfter is negative
+     */
+    public TestRailSimulator tooManyRequestsRate(double tooManyRequestsRate, Duration retryAfter) {
+        checkArgument(tooManyRequestsRate >= 0 && tooManyRequestsRate <= 1, "tooManyRequestsRate should be between 0 and 1");
+        checkArgument(!retryAfter.isNegative(), "retryAfter should not be negative");
+        this.tooManyRequestsRate = tooManyRequestsRate;
+        this.retryAfter = retryAfter;
+        return this;
+    }
+
+    /**
+     * Set the response of {@code get_case_fields}. Only the custom fields of these case fields are stored with test cases.
+     * Without case fields, every {@code custom_} field of a test case is stored.
+     *
+     * @param caseFieldsJson the JSON array of case fields, as returned by TestRail
+     * @return this for chaining
+     * @throws IllegalArgumentException if caseFieldsJson is not a JSON array
+     */
+    public TestRailSimulator caseFields(String caseFieldsJson) {
+        JsonNode parsed;
+        try {
+            parsed = JSON.readTree(caseFieldsJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("caseFieldsJson should be a JSON array", e);
+        }
+        checkArgument(parsed.isArray(), "caseFieldsJson should be a JSON array");
+        synchronized (this) {
+            caseFields = (ArrayNode) parsed;
+        }
+        return this;
+    }
+
+    /**
+     * Add a suite, as {@code add_suite} does.
+     *
+     * @param projectId the ID of the project
+     * @param name      the name of the suite
+     * @return the ID of the suite
+     */
+    public synchronized int addSuite(int projectId, String name) {
+        return addSuite(projectId, JSON.createObjectNode().put("name", name)).get("id").asInt();
+    }
+
+    /**
+     * Add a section, as {@code add_section} does.
+     *
+     * @param suiteId  the ID of the suite
+     * @param parentId the ID of the parent section, or {@code null} for a top level section
+     * @param name     the name of the section
+     * @return the ID of the section
+     */
+    public synchronized int addSection(int suiteId, Integer parentId, String name) {
+        ObjectNode section = JSON.createObjectNode().put("suite_id", suiteId).put("parent_id", parentId).put("name", name);
+        return addSection(getSuite(suiteId).get("project_id").asInt(), section).get("id").asInt();
+    }
+
+    /**
+     * Add a test case, as {@code add_case} does.
+     *
+     * @param sectionId the ID of the section
+     * @param title     the title of the test case
+     * @return the ID of the test case
+     */
+    public synchronized int addCase(int sectionId, String title) {
+        return addCase(sectionId, JSON.createObjectNode().put("title", title)).get("id").asInt();
+    }
+
+    /**
+     * Get the number of test cases stored.
+     *
+     * @return the number of test cases
+     */
+    public synchronized int getCaseCount() {
+        return cases.size();
+    }
+
+    /**
+     * Get the number of sections stored.
+     *
+     * @return the number of sections
+     */
+    public synchronized int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * Get the number of requests received for an endpoint, including the ones answered with an injected failure.
+     *
+     * @param endpoint the name of the endpoint, for e.g. {@code get_cases}
+     * @return the number of requests
+     */
+    public long getRequestCount(String endpoint) {
+        AtomicLong count = requestCounts.get(endpoint);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Get the number of requests received for all endpoints, including the ones answered with an injected failure.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requestCounts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * Get the number of requests answered with an injected {@code 500}.
+     *
+     * @return the number of requests
+     * @see #errorRate(double)
+     */
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * Get the number of requests answered with an injected {@code 429}.
+     *
+     * @return the number of requests
+     * @see #tooManyRequestsRate(double, Duration)
+     */
+    public long getInjectedTooManyRequestsCount() {
+        return injectedTooManyRequests.get();
+    }
+
+    /**
+     * Stop the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query == null || !query.startsWith(API_PATH)) {
+                send(exchange, 404, error("Unknown API path " + exchange.getRequestURI()));
+                return;
+            }
+            List<String> parts = QUERY_SPLITTER.splitToList(query.substring(API_PATH.length()));
+            String command = parts.get(0);
+            String endpoint = command.contains("/") ? command.substring(0, command.indexOf('/')) : command;
+            Integer id = command.contains("/") ? parseId(command.substring(command.indexOf('/') + 1)) : null;
+            Map<String, String> parameters = new LinkedHashMap<>();
+            for (String parameter : parts.subList(1, parts.size())) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    parameters.put(parameter.substring(0, separator),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+            requestCounts.computeIfAbsent(endpoint, key -> new AtomicLong()).incrementAndGet();
+
+            simulateLatency();
+            if (ThreadLocalRandom.current().nextDouble() < tooManyRequestsRate) {
+                injectedTooManyRequests.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfter.toSeconds()));
+                send(exchange, HTTP_TOO_MANY_REQUESTS, error("API Rate Limit Exceeded"));
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 500, error("Simulated internal server error"));
+                return;
+            }
+            if (exchange.getRequestHeaders().getFirst("Authorization") == null) {
+                send(exchange, 401, error("Authentication failed: invalid or missing user/password or session cookie."));
+                return;
+            }
+
+            boolean read = endpoint.startsWith("get_");
+            if (read == "POST".equals(exchange.getRequestMethod())) {
+                send(exchange, 400, error((read ? "GET" : "POST") + " is required for " + endpoint));
+                return;
+            }
+            byte[] response;
+            try {
+                response = dispatch(endpoint, id, parameters, read ? null : readBody(exchange.getRequestBody()));
+            } catch (ApiException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                send(exchange, 500, error(String.valueOf(e)));
+                return;
+            }
+            send(exchange, 200, response);
+        }
+    }
+
+    private synchronized byte[] dispatch(String endpoint, Integer id, Map<String, String> parameters, ObjectNode body) throws JsonProcessingException {
+        JsonNode response = switch (endpoint) {
+            case "get_project" -> JSON.createObjectNode().put("id", requireId(id)).put("name", "Project " + id)
+                    .put("suite_mode", 3).put("is_completed", false);
+            case "get_case_fields" -> caseFields;
+            case "get_suite" -> getSuite(requireId(id));
+            case "get_suites" -> JSON.createArrayNode().addAll(filter(suites.values(),
+                    suite -> suite.get("project_id").asInt() == requireId(id)));
+            case "add_suite" -> addSuite(requireId(id), body);
+            case "update_suite" -> update(getSuite(requireId(id)), body, ImmutableSet.of("name", "description"));
+            case "delete_suite" -> deleteSuite(requireId(id));
+            case "get_section" -> getSection(requireId(id));
+            case "get_sections" -> page(endpoint + "/" + requireId(id), parameters, "sections",
+                    filter(sections.values(), projectFilter(id).and(suiteFilter(parameters))));
+            case "add_section" -> addSection(requireId(id), body);
+            case "update_section" -> update(getSection(requireId(id)), body, ImmutableSet.of("name", "description"));
+            case "delete_section" -> deleteSection(requireId(id));
+            case "move_section" -> moveSection(requireId(id), body);
+            case "get_case" -> getCase(requireId(id));
+            case "get_cases" -> page(endpoint + "/" + requireId(id), parameters, "cases",
+                    filter(cases.values(), projectFilter(id).and(suiteFilter(parameters)).and(caseFilter(parameters))));
+            case "add_case" -> addCase(requireId(id), body);
+            case "update_case" -> updateCase(getCase(requireId(id)), body);
+            case "delete_case" -> deleteCase(requireId(id));
+            case "update_cases" -> updateCases(requireId(id), body);
+            case "delete_cases" -> deleteCases(requireId(id), body);
+            case "move_cases_to_section" -> moveCasesToSection(requireId(id), body);
+            default -> throw new ApiException("Unknown method '" + endpoint + "'");
+        };
+        return response == null ? new byte[0] : JSON.writeValueAsBytes(response);
+    }
+
+    private ObjectNode getSuite(int suiteId) {
+        return require(suites.get(suiteId), "Field :suite_id is not a valid test suite.");
+    }
+
+    private ObjectNode addSuite(int projectId, ObjectNode body) {
+        ObjectNode suite = JSON.createObjectNode()
+                .put("id", ++lastSuiteId)
+                .put("name", requireText(body, "name"))
+                .put("description", body.path("description").textValue())
+                .put("project_id", projectId)
+                .put("is_master", false)
+                .put("is_baseline", false)
+                .put("is_completed", false)
+                .putNull("completed_on")
+                .put("url", getEndPoint() + "/index.php?/suites/view/" + lastSuiteId);
+        suites.put(lastSuiteId, suite);
+        return suite;
+    }
+
+    private JsonNode deleteSuite(int suiteId) {
+        getSuite(suiteId);
+        suites.remove(suiteId);
+        sections.values().removeIf(section -> section.get("suite_id").asInt() == suiteId);
+        cases.values().removeIf(testCase -> testCase.get("suite_id").asInt() == suiteId);
+        return null;
+    }
+
+    private ObjectNode getSection(int sectionId) {
+        return require(sections.get(sectionId), "Field :section_id is not a valid section.");
+    }
+
+    private ObjectNode addSection(int projectId, ObjectNode body) {
+        ObjectNode suite = getSuite(body.path("suite_id").asInt());
+        checkApi(suite.get("project_id").asInt() == projectId, "Field :suite_id is not a valid test suite.");
+        ObjectNode parent = body.path("parent_id").isNumber() ? getSection(body.get("parent_id").asInt()) : null;
+        checkApi(parent == null || parent.get("suite_id").equals(suite.get("id")), "Field :parent_id is not a valid section.");
+        ObjectNode section = JSON.createObjectNode()
+                .put("id", ++lastSectionId)
+                .put("suite_id", suite.get("id").asInt())
+                .put("name", requireText(body, "name"))
+                .put("description", body.path("description").textValue())
+                .put("parent_id", parent == null ? null : parent.get("id").asInt())
+                .put("display_order", lastSectionId)
+                .put("depth", parent == null ? 0 : parent.get("depth").asInt() + 1);
+        sections.put(lastSectionId, section);
+        return section;
+    }
+
+    private JsonNode deleteSection(int sectionId) {
+        getSection(sectionId);
+        Set<Integer> deleted = getSubtree(sectionId);
+        sections.keySet().removeAll(deleted);
+        cases.values().removeIf(testCase -> deleted.contains(testCase.get("section_id").asInt()));
+        return null;
+    }
+
+    private ObjectNode moveSection(int sectionId, ObjectNode body) {
+        ObjectNode section = getSection(sectionId);
+        ObjectNode parent = body.path("parent_id").isNumber() ? getSection(body.get("parent_id").asInt()) : null;
+        if (parent != null) {
+            checkApi(parent.get("suite_id").equals(section.get("suite_id")) && !getSubtree(sectionId).contains(parent.get("id").asInt()),
+                    "Field :parent_id is not a valid section.");
+        }
+        section.put("parent_id", parent == null ? null : parent.get("id").asInt());
+        int depthChange = (parent == null ? 0 : parent.get("depth").asInt() + 1) - section.get("depth").asInt();
+        for (int id : getSubtree(sectionId)) {
+            ObjectNode moved = sections.get(id);
+            moved.put("depth", moved.get("depth").asInt() + depthChange);
+        }
+        return section;
+    }
+
+    private Set<Integer> getSubtree(int sectionId) {
+        Set<Integer> subtree = new HashSet<>();
+        subtree.add(sectionId);
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (ObjectNode section : sections.values()) {
+                if (section.path("parent_id").isNumber() && subtree.contains(section.get("parent_id").asInt())) {
+                    added |= subtree.add(section.get("id").asInt());
+                }
+            }
+        }
+        return subtree;
+    }
+
+    private ObjectNode getCase(int caseId) {
+        return require(cases.get(caseId), "Field :case_id is not a valid test case.");
+    }
+
+    private ObjectNode addCase(int sectionId, ObjectNode body) {
+        ObjectNode section = getSection(sectionId);
+        requireText(body, "title");
+        long now = now();
+        ObjectNode testCase = JSON.createObjectNode()
+                .put("id", ++lastCaseId)
+                .put("section_id", sectionId)
+                .put("template_id", 1)
+                .put("type_id", 7)
+                .put("priority_id", 2)
+                .putNull("milestone_id")
+                .putNull("refs")
+                .put("created_by", 1)
+                .put("created_on", now)
+                .put("updated_by", 1)
+                .put("updated_on", now)
+                .putNull("estimate")
+                .putNull("estimate_forecast")
+                .put("suite_id", section.get("suite_id").asInt())
+                .put("display_order", lastCaseId);
+        copyCaseFields(body, testCase);
+        cases.put(lastCaseId, testCase);
+        return testCase;
+    }
+
+    private ObjectNode updateCase(ObjectNode testCase, ObjectNode body) {
+        if (body.path("section_id").isNumber()) {
+            ObjectNode section = getSection(body.get("section_id").asInt());
+            checkApi(section.get("suite_id").equals(testCase.get("suite_id")), "Field :section_id is not a valid section.");
+            testCase.put("section_id", section.get("id").asInt());
+        }
+        copyCaseFields(body, testCase);
+        testCase.put("updated_on", now());
+        return testCase;
+    }
+
+    private JsonNode deleteCase(int caseId) {
+        getCase(caseId);
+        cases.remove(caseId);
+        return null;
+    }
+
+    private JsonNode updateCases(int suiteId, ObjectNode body) {
+        ArrayNode updated = JSON.createArrayNode();
+        for (ObjectNode testCase : getCasesOfSuite(suiteId, body)) {
+            updated.add(updateCase(testCase, body));
+        }
+        return updated;
+    }
+
+    private JsonNode deleteCases(int suiteId, ObjectNode body) {
+        for (ObjectNode testCase : getCasesOfSuite(suiteId, body)) {
+            cases.remove(testCase.get("id").asInt());
+        }
+        return null;
+    }
+
+    private JsonNode moveCasesToSection(int sectionId, ObjectNode body) {
+        ObjectNode section = getSection(sectionId);
+        checkApi(section.get("suite_id").equals(body.get("suite_id")), "Field :suite_id is not a valid test suite.");
+        long now = now();
+        for (ObjectNode testCase : getCasesOfSuite(section.get("suite_id").asInt(), body)) {
+            testCase.put("section_id", sectionId).put("updated_on", now);
+        }
+        return null;
+    }
+
+    private List<ObjectNode> getCasesOfSuite(int suiteId, ObjectNode body) {
+        getSuite(suiteId);
+        checkApi(body.path("case_ids").isArray(), "Field :case_ids is a required field.");
+        List<ObjectNode> found = new ArrayList<>();
+        for (JsonNode caseId : body.get("case_ids")) {
+            ObjectNode testCase = getCase(caseId.asInt());
+            checkApi(testCase.get("suite_id").asInt() == suiteId, "Field :case_ids contains a test case of another suite.");
+            found.add(testCase);
+        }
+        return found;
+    }
+
+    private void copyCaseFields(ObjectNode from, ObjectNode to) {
+        Set<String> customFields = new HashSet<>();
+        for (JsonNode caseField : caseFields) {
+            customFields.add(caseField.path("system_name").asText());
+        }
+        from.fields().forEachRemaining(field -> {
+            String name = field.getKey();
+            if (CASE_FIELDS.contains(name)
+                    || name.startsWith("custom_") && (customFields.isEmpty() || customFields.contains(name))) {
+                to.set(name, field.getValue());
+            }
+        });
+    }
+
+    private ObjectNode update(ObjectNode entity, ObjectNode body, Set<String> fields) {
+        for (String field : fields) {
+            if (body.has(field)) {
+                entity.set(field, body.get(field));
+            }
+        }
+        return entity;
+    }
+
+    private ObjectNode page(String command, Map<String, String> parameters, String entitiesName, List<ObjectNode> entities) {
+        int offset = Math.max(0, parseInt(parameters.getOrDefault("offset", "0")));
+        int limit = Math.min(MAX_PAGE_SIZE, Math.max(1, parseInt(parameters.getOrDefault("limit", String.valueOf(MAX_PAGE_SIZE)))));
+        StringBuilder url = new StringBuilder(API_PATH).append(command);
+        parameters.forEach((name, value) -> {
+            if (!"offset".equals(name) && !"limit".equals(name)) {
+                url.append('&').append(name).append('=').append(value);
+            }
+        });
+        List<ObjectNode> page = entities.subList(Math.min(offset, entities.size()), Math.min(offset + limit, entities.size()));
+        ObjectNode response = JSON.createObjectNode()
+                .put("offset", offset)
+                .put("limit", limit)
+                .put("size", page.size());
+        ObjectNode links = response.putObject("_links");
+        links.put("next", offset + limit < entities.size() ? url + "&limit=" + limit + "&offset=" + (offset + limit) : null);
+        links.put("prev", offset > 0 ? url + "&limit=" + limit + "&offset=" + Math.max(0, offset - limit) : null);
+        response.putArray(entitiesName).addAll(page);
+        return response;
+    }
+
+    private Predicate<ObjectNode> projectFilter(int projectId) {
+        return entity -> suites.get(entity.get("suite_id").asInt()).get("project_id").asInt() == projectId;
+    }
+
+    private static Predicate<ObjectNode> suiteFilter(Map<String, String> parameters) {
+        String suiteId = parameters.get("suite_id");
+        return entity -> suiteId == null || suiteId.isEmpty() || entity.get("suite_id").asText().equals(suiteId);
+    }
+
+    private static Predicate<ObjectNode> caseFilter(Map<String, String> parameters) {
+        Predicate<ObjectNode> filter = testCase -> true;
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            String name = parameter.getKey();
+            if (CASE_FILTERS.contains(name)) {
+                List<String> values = CSV_SPLITTER.splitToList(parameter.getValue());
+                filter = filter.and(testCase -> values.contains(testCase.path(name).asText()));
+            } else if (name.endsWith("_after") || name.endsWith("_before")) {
+                String field = name.substring(0, name.lastIndexOf('_')) + "_on";
+                long timestamp = parseLong(parameter.getValue());
+                filter = filter.and(name.endsWith("_after")
+                        ? testCase -> testCase.path(field).asLong() > timestamp
+                        : testCase -> testCase.path(field).asLong() < timestamp);
+            }
+        }
+        return filter;
+    }
+
+    private static List<ObjectNode> filter(Collection<ObjectNode> entities, Predicate<ObjectNode> filter) {
+        return entities.stream().filter(filter).toList();
+    }
+
+    private void simulateLatency() {
+        long min = minLatency.toNanos();
+        long max = maxLatency.toNanos();
+        if (max == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(min == max ? min : ThreadLocalRandom.current().nextLong(min, max)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ObjectNode readBody(InputStream body) throws IOException {
+        byte[] content = body.readAllBytes();
+        JsonNode parsed;
+        try {
+            parsed = content.length == 0 ? JSON.createObjectNode() : JSON.readTree(content);
+        } catch (JsonProcessingException e) {
+            throw new ApiException("Invalid JSON in request body: " + e.getOriginalMessage());
+        }
+        checkApi(parsed.isObject(), "Request body should be a JSON object.");
+        return (ObjectNode) parsed;
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+        }
+    }
+
+    private static byte[] error(String message) throws JsonProcessingException {
+        return JSON.writeValueAsBytes(JSON.createObjectNode().put("error", message));
+    }
+
+    private static long now() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    private static int requireId(Integer id) {
+        checkApi(id != null, "Field :id is a required field.");
+        return id;
+    }
+
+    private static String requireText(ObjectNode body, String field) {
+        checkApi(body.path(field).isTextual() && !body.get(field).asText().isEmpty(), "Field :" + field + " is a required field.");
+        return body.get(field).asText();
+    }
+
+    private static ObjectNode require(ObjectNode entity, String message) {
+        checkApi(entity != null, message);
+        return entity;
+    }
+
+    private static void checkApi(boolean condition, String message) {
+        if (!condition) {
+            throw new ApiException(message);
+        }
+    }
+
+    private static Integer parseId(String id) {
+        try {
+            return Integer.valueOf(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int parseInt(String value) {
+        return Math.toIntExact(parseLong(value));
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException("Value " + value + " is not a valid number.");
+        }
+    }
+
+    /**
+     * Request rejected by the simulated API, answered with {@code 400} and the message as the TestRail error. Thrown as
+     * is by the methods adding data to the simulator.
+     */
+    private static class ApiException extends IllegalArgumentException {
+        ApiException(String message) {
+            super(message);
+        }
+    }
+}